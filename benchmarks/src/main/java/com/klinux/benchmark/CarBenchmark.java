@@ -0,0 +1,62 @@
+package com.klinux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.klinux.builder.SUVBuilder;
+import com.klinux.builder.SedanBuilder;
+import com.klinux.builder.TruckBuilder;
+import com.klinux.model.Car;
+import com.klinux.service.CarService;
+
+// CarService.buildCar for each preset model, against building the car with its builder on every call
+// as the service used to. Run with -prof gc: gc.alloc.rate.norm is the garbage per lookup.
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarBenchmark {
+
+    @Param({ "sedan", "SUV", "truck" })
+    public String model;
+
+    private final CarService carService = new CarService();
+
+    @Benchmark
+    public Car buildCar() {
+        return carService.buildCar(model);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Car buildCarAllThreads() {
+        return carService.buildCar(model);
+    }
+
+    @Benchmark
+    public Car buildCarWithBuilders() {
+        switch (model.toLowerCase()) {
+            case "sedan":
+                return new SedanBuilder().build();
+            case "suv":
+                return new SUVBuilder().build();
+            case "truck":
+                return new TruckBuilder().build();
+            default:
+                throw new IllegalArgumentException("Invalid car model");
+        }
+    }
+}
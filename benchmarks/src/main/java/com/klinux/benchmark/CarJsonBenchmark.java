@@ -0,0 +1,72 @@
+package com.klinux.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.cache.CarJsonCache;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.service.CarService;
+
+// Response body for GET /buildCar/{model}: serializing the Car with Jackson on every request against
+// copying the pre-serialized bytes from CarJsonCache. The stream stands in for the servlet output buffer.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CarJsonBenchmark {
+
+    @Param({ "sedan", "SUV" })
+    public String model;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    private CarService carService;
+    private CarJsonCache carJsonCache;
+
+    @Setup
+    public void setUp() {
+        CarPresetRegistry registry = new CarPresetRegistry();
+        carService = new CarService(registry);
+        carJsonCache = new CarJsonCache(registry, objectMapper);
+    }
+
+    @Benchmark
+    public int jackson() throws Exception {
+        out.reset();
+        Car car = carService.buildCar(model);
+        objectMapper.writeValue(out, car);
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() {
+        out.reset();
+        byte[] json = carJsonCache.get(carService.buildCar(model)).json();
+        out.write(json, 0, json.length);
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedGzipBytes() {
+        out.reset();
+        byte[] gzip = carJsonCache.get(carService.buildCar(model)).gzip();
+        out.write(gzip, 0, gzip.length);
+        return out.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.klinux.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load against a running car application: `connections` clients each send a request,
+// wait for the answer and send the next one. Reports requests/s and latency percentiles for the
+// measurement window (the warm-up is left out). Not a JMH suite; run it against the two stacks:
+//   java -jar target/builder-car-manufacturing-*.jar                                  (Tomcat, MVC)
+//   java -cp target/benchmarks.jar com.klinux.benchmark.CarLoadTest http://localhost:8080/buildCar/suv/checked
+//   java -jar target/builder-car-manufacturing-*.jar --spring.profiles.active=reactive (Netty, WebFlux)
+//   java -cp target/benchmarks.jar com.klinux.benchmark.CarLoadTest http://localhost:8080/reactive/buildCar/suv
+// Arguments: url [connections=10000] [seconds=30] [warm-up seconds=10]
+public final class CarLoadTest {
+
+    private static final int MAX_SAMPLES = 1 << 24;
+
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final long[] samples = new long[MAX_SAMPLES];
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long measureFrom;
+    private volatile long measureUntil;
+    private volatile boolean running = true;
+
+    private CarLoadTest(HttpClient client, HttpRequest request) {
+        this.client = client;
+        this.request = request;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: CarLoadTest url [connections] [seconds] [warm-up seconds]");
+            System.exit(1);
+        }
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmUpSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(args[0]))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        CarLoadTest test = new CarLoadTest(client, request);
+        test.run(connections, seconds, warmUpSeconds);
+        executor.shutdownNow();
+    }
+
+    private void run(int connections, int seconds, int warmUpSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        measureFrom = start + Duration.ofSeconds(warmUpSeconds).toNanos();
+        measureUntil = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        CountDownLatch stopped = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            send(stopped);
+        }
+        Thread.sleep(Duration.ofNanos(measureUntil - start).toMillis());
+        running = false;
+        stopped.await();
+
+        int count = Math.min(sampleCount.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        System.out.printf("%s, %d connections, %d s%n", request.uri(), connections, seconds);
+        System.out.printf("requests/s %.0f, errors %d%n", sampleCount.get() / (double) seconds, errors.get());
+        if (count > 0) {
+            System.out.printf("latency ms: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[count - 1] / 1e6);
+        }
+    }
+
+    // One client: the next request goes out when the previous answer is in, until the test ends
+    private void send(CountDownLatch stopped) {
+        if (!running) {
+            stopped.countDown();
+            return;
+        }
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long received = System.nanoTime();
+            if (sent >= measureFrom && received <= measureUntil) {
+                if (failure != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    int sample = sampleCount.getAndIncrement();
+                    if (sample < MAX_SAMPLES) {
+                        samples[sample] = received - sent;
+                    }
+                }
+            }
+            send(stopped);
+        });
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1e6;
+    }
+}
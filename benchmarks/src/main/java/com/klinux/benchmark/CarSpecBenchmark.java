@@ -0,0 +1,80 @@
+package com.klinux.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCatalog;
+import com.klinux.spec.PartCategory;
+import com.klinux.spec.PartTable;
+
+// POST /buildCars body for a configurator page: every combination of the catalog's engines, wheels and
+// interiors on each model, one request of `specs` specs. Compares one thread against the fork-join pool,
+// with and without the per-configuration JSON line cache (json-cache-limit 0 turns it off).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarSpecBenchmark {
+
+    @Param({ "2000", "20000" })
+    public int specs;
+
+    @Param({ "1", "0" })
+    public int parallelism;
+
+    @Param({ "0", "65536" })
+    public int jsonCacheLimit;
+
+    private final List<CarSpec> request = new ArrayList<>();
+    private CarSpecEngine engine;
+
+    @Setup
+    public void setUp() throws Exception {
+        PartCatalog catalog = new PartCatalog(new ClassPathResource("catalog/parts.csv"));
+        engine = new CarSpecEngine(catalog, new CarPresetRegistry(), new ObjectMapper(), parallelism, 256, specs,
+                jsonCacheLimit);
+
+        PartTable models = catalog.table(PartCategory.MODEL);
+        PartTable engines = catalog.table(PartCategory.ENGINE);
+        PartTable wheels = catalog.table(PartCategory.WHEELS);
+        PartTable interiors = catalog.table(PartCategory.INTERIOR);
+        for (int i = 0; request.size() < specs; i++) {
+            request.add(new CarSpec(null, models.codeOf(i % models.size()), engines.codeOf(i / 3 % engines.size()),
+                    wheels.codeOf(i / 7 % wheels.size()), "4", interiors.codeOf(i / 11 % interiors.size())));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public int buildCars() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.writeNdjson(request, out);
+        return out.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.klinux.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// Several pattern classes print with System.out; keep that cost in the measurement but not on the terminal
+final class Console {
+
+    private static PrintStream original;
+
+    private Console() {
+    }
+
+    static synchronized void silence() {
+        if (original == null) {
+            original = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    static synchronized void restore() {
+        if (original != null) {
+            System.setOut(original);
+            original = null;
+        }
+    }
+}
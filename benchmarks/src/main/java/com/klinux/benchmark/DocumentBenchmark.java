@@ -0,0 +1,101 @@
+package com.klinux.benchmark;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.klinux.cache.DocumentCache;
+import com.klinux.document.word.WordTemplateCache;
+import com.klinux.factory.DocumentFactoryRegistry;
+import com.klinux.factory.ExcelDocumentFactory;
+import com.klinux.factory.PDFDocumentFactory;
+import com.klinux.factory.WordDocumentFactory;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.service.DocumentGenerationService;
+import com.klinux.store.DocumentStore;
+import com.klinux.store.StoredDocument;
+
+// DocumentGenerationService.generateDocument (file in the DocumentStore) against the streaming
+// path used by POST /documents/generate, for each document type
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentBenchmark {
+
+    @Param({ "pdf", "excel", "word" })
+    public String type;
+
+    @Param({ "Monthly statement for account 0042" })
+    public String content;
+
+    // true: repeated (type, content) pairs are served by the DocumentCache after the first render
+    @Param({ "false", "true" })
+    public boolean cache;
+
+    private DocumentStore store;
+    private DocumentCache documentCache;
+    private DocumentGenerationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        store = new DocumentStore(Files.createTempDirectory("documents").toString(), 60, 60, 65536, 32);
+        documentCache = new DocumentCache(Files.createTempDirectory("document-cache").toString(),
+                64 * 1024 * 1024, 4 * 1024 * 1024, 1024 * 1024 * 1024);
+        DocumentFactoryRegistry registry = new DocumentFactoryRegistry(List.of(new PDFDocumentFactory(),
+                new ExcelDocumentFactory(), new WordDocumentFactory(new WordTemplateCache("letterhead"), 5_000_000)));
+        service = new DocumentGenerationService(store, registry, documentCache, new DocumentMetrics(), cache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.shutdown();
+        documentCache.shutdown();
+    }
+
+    // Stored then deleted right away, so the store directory does not grow during the run
+    @Benchmark
+    public StoredDocument generateDocument() throws Exception {
+        StoredDocument document = service.generateDocument(type, content);
+        store.delete(document.id());
+        return document;
+    }
+
+    // Rendered into a stream that discards the bytes, as a stand-in for the response stream
+    @Benchmark
+    public void writeDocument() throws Exception {
+        service.createDocument(type).write(content, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void writeDocumentFourThreads() throws Exception {
+        service.createDocument(type).write(content, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public StoredDocument generateDocumentFourThreads() throws Exception {
+        StoredDocument document = service.generateDocument(type, content);
+        store.delete(document.id());
+        return document;
+    }
+}
@@ -0,0 +1,108 @@
+package com.klinux.benchmark;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.klinux.document.ExcelDocument;
+import com.klinux.document.rows.RowReader;
+
+// ExcelDocument (SXSSF, bounded row window) against the same rows written with a plain XSSF workbook
+// that keeps every row on the heap. The rows counter reports rows/s; the peak heap of each iteration is
+// printed to stderr. Run with a small heap (-jvmArgsAppend -Xmx256m) to see XSSF fail at 1M rows while
+// SXSSF stays flat.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private String csv;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(rows * 48);
+        builder.append("account,customer,amount,currency,settled\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append("ACC-").append(i).append(",Customer ").append(i % 977).append(',')
+                    .append(i % 10_000).append('.').append(i % 100).append(",EUR,").append(i % 2 == 0).append('\n');
+        }
+        csv = builder.toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.err.printf("%n  peak heap: %d MB%n", peak / (1024 * 1024));
+    }
+
+    @Benchmark
+    public void sxssf(RowCounter counter) throws Exception {
+        new ExcelDocument().write(new StringReader(csv), OutputStream.nullOutputStream());
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public void xssf(RowCounter counter) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); RowReader reader = RowReader.open(new StringReader(csv))) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            int rowIndex = 0;
+            List<Object> values;
+            while ((values = reader.next()) != null) {
+                Row row = sheet.createRow(rowIndex++);
+                for (int column = 0; column < values.size(); column++) {
+                    row.createCell(column).setCellValue(values.get(column).toString());
+                }
+            }
+            workbook.write(OutputStream.nullOutputStream());
+        }
+        counter.rows += rows;
+    }
+}
@@ -0,0 +1,98 @@
+package com.klinux.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import com.klinux.inventory.CarInventory;
+import com.klinux.inventory.InventoryQuery;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.spec.CarConfiguration;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCatalog;
+
+// Filtering `cars` random configurations held as a List<Car> against CarInventory, on and off the heap.
+// "indexed" filters on model and engine (the inventory walks the model or engine index); "unindexed"
+// filters on wheels and doors (the inventory scans its columns). Run with -jvmArgs -Xmx4g for 5M cars.
+// Heap per car is measured separately (see the README); JMH's -prof gc only reports allocation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+
+    @Param({ "1000000" })
+    public int cars;
+
+    @Param({ "false", "true" })
+    public boolean offHeap;
+
+    private final InventoryQuery indexed = new InventoryQuery("suv", "v6-3.5", null, null, null);
+    private final InventoryQuery unindexed = new InventoryQuery(null, null, "20-alloy", "4", null);
+    private List<Car> list;
+    private CarInventory inventory;
+
+    @Setup
+    public void setUp() throws Exception {
+        PartCatalog catalog = new PartCatalog(new ClassPathResource("catalog/parts.csv"));
+        CarSpecEngine engine = new CarSpecEngine(catalog, new CarPresetRegistry(), null, 1, 256, 1, 0);
+        inventory = new CarInventory(catalog, offHeap, cars);
+        list = new ArrayList<>(cars);
+        Random random = new Random(42);
+        for (int i = 0; i < cars; i++) {
+            CarConfiguration configuration = new CarConfiguration((short) random.nextInt(5), (short) random.nextInt(5),
+                    (short) random.nextInt(6), (short) random.nextInt(4), (short) random.nextInt(4));
+            inventory.add(configuration);
+            list.add(engine.toCar(configuration));
+        }
+    }
+
+    @Benchmark
+    public int listIndexed() {
+        int count = 0;
+        for (Car car : list) {
+            if (car.getModel().equals("SUV") && car.getEngine().equals("3.5L V6")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int inventoryIndexed() {
+        return inventory.count(indexed);
+    }
+
+    @Benchmark
+    public int listUnindexed() {
+        int count = 0;
+        for (Car car : list) {
+            if (car.getWheels().equals("20-inch Alloy") && car.getDoors().equals("4 Doors")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int inventoryUnindexed() {
+        return inventory.count(unindexed);
+    }
+}
@@ -0,0 +1,84 @@
+package com.klinux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.klinux.log.AsyncLogSettings;
+import com.klinux.log.LogManager;
+
+// LogManager.log and the level-aware API, on the caller thread (SYNC) and through the async pipeline (ASYNC)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogManagerBenchmark {
+
+    @Param({ "SYNC", "ASYNC" })
+    public String mode;
+
+    private LogManager logManager;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logManager = LogManager.getInstance();
+        if ("ASYNC".equals(mode)) {
+            logManager.enableAsync(AsyncLogSettings.defaults());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logManager.disableAsync();
+    }
+
+    @Benchmark
+    public void logString() {
+        logManager.log("Performing some operation...");
+    }
+
+    // The pre-existing call style: message concatenated before the call
+    @Benchmark
+    public void logConcatenated() {
+        logManager.log("Processed item " + counter++);
+    }
+
+    @Benchmark
+    public void infoLongArgument() {
+        logManager.info("Processed item {}", counter++);
+    }
+
+    // DEBUG is disabled by the benchmark logback.xml, so this measures the level check alone
+    @Benchmark
+    public void debugDisabled() {
+        logManager.debug("Processed item {}", counter++);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void logStringAllThreads() {
+        logManager.log("Performing some operation...");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void infoLongArgumentAllThreads() {
+        logManager.info("Processed item {}", System.nanoTime());
+    }
+}
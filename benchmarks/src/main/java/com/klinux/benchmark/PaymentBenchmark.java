@@ -0,0 +1,101 @@
+package com.klinux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.klinux.payment.PaymentMethod;
+import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.factory.PaymentProcessorFactory;
+import com.klinux.service.PaymentService;
+
+// Processor lookup on its own, and the full PaymentService path including the processor call
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentBenchmark {
+
+    @Param({ "creditcard", "PayPal", "stripe" })
+    public String paymentMethod;
+
+    private AnnotationConfigApplicationContext context;
+    private PaymentProcessorFactory factory;
+    private PaymentService paymentService;
+    private PaymentProcessor creditCardProcessor;
+    private PaymentProcessor payPalProcessor;
+    private PaymentProcessor stripeProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Console.silence();
+        // Only the payment beans; com.klinux.service also holds the other modules' services
+        context = new AnnotationConfigApplicationContext();
+        context.scan("com.klinux.payment");
+        context.register(PaymentService.class);
+        context.refresh();
+        factory = context.getBean(PaymentProcessorFactory.class);
+        paymentService = context.getBean(PaymentService.class);
+        creditCardProcessor = factory.getPaymentProcessor(PaymentMethod.CREDIT_CARD);
+        payPalProcessor = factory.getPaymentProcessor(PaymentMethod.PAYPAL);
+        stripeProcessor = factory.getPaymentProcessor(PaymentMethod.STRIPE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        Console.restore();
+    }
+
+    @Benchmark
+    public PaymentProcessor getPaymentProcessor() {
+        return factory.getPaymentProcessor(paymentMethod);
+    }
+
+    @Benchmark
+    public PaymentProcessor getPaymentProcessorByEnum() {
+        return factory.getPaymentProcessor(PaymentMethod.STRIPE);
+    }
+
+    // The factory's previous lookup, kept as the baseline: allocates a lower-cased copy per call
+    @Benchmark
+    public PaymentProcessor legacySwitchLookup() {
+        switch (paymentMethod.toLowerCase()) {
+            case "creditcard":
+                return creditCardProcessor;
+            case "paypal":
+                return payPalProcessor;
+            case "stripe":
+                return stripeProcessor;
+            default:
+                throw new IllegalArgumentException("Unknown payment method: " + paymentMethod);
+        }
+    }
+
+    @Benchmark
+    public void processPayment() {
+        paymentService.processPayment(paymentMethod, 100.0);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void processPaymentAllThreads() {
+        paymentService.processPayment(paymentMethod, 100.0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.klinux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.metrics.PaymentMetrics;
+
+// Cost of the payment instrumentation: a no-op processor called directly versus through
+// PaymentMetrics.process. The difference between the two must stay under 50 ns per call.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentMetricsBenchmark {
+
+    // 1 times every call; the application default is 4
+    @Param({ "1", "4" })
+    public int latencySampleEvery;
+
+    private PaymentMetrics metrics;
+    private final NoOpProcessor processor = new NoOpProcessor();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = new PaymentMetrics(latencySampleEvery);
+    }
+
+    static final class NoOpProcessor implements PaymentProcessor {
+
+        double last;
+
+        @Override
+        public String getPaymentMethod() {
+            return "noop";
+        }
+
+        @Override
+        public void processPayment(double amount) {
+            last = amount;
+        }
+    }
+
+    @Benchmark
+    public double uninstrumented() {
+        processor.processPayment(100.0);
+        return processor.last;
+    }
+
+    @Benchmark
+    public double instrumented() {
+        metrics.process(processor, 100.0);
+        return processor.last;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double instrumentedAllThreads() {
+        metrics.process(processor, 100.0);
+        return processor.last;
+    }
+
+    @Benchmark
+    public void snapshot(Blackhole blackhole) {
+        blackhole.consume(metrics.snapshot());
+    }
+}
@@ -0,0 +1,62 @@
+package com.klinux.benchmark;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.klinux.document.PDFDocument;
+import com.klinux.document.pdf.PdfResources;
+
+// A small PDF rendered with the shared PdfResources against loading fonts, images and styles for every
+// document. Run with -prof gc: gc.alloc.rate.norm is the allocation per document. An empty font means
+// Helvetica (iText already caches the standard font programs, so the gap is small); a TrueType font
+// shows the cost of parsing the font file per render.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfResourcesBenchmark {
+
+    private static final String CONTENT = "Monthly statement - account 0042 - balance 1,250.00 EUR";
+
+    @Param({ "", "file:/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf" })
+    public String font;
+
+    private PdfResources shared;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shared = new PdfResources(font, 11f, "");
+    }
+
+    @Benchmark
+    public void sharedResources() throws Exception {
+        new PDFDocument(shared).write(CONTENT, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void sharedResourcesFourThreads() throws Exception {
+        new PDFDocument(shared).write(CONTENT, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void resourcesPerDocument() throws Exception {
+        new PDFDocument(new PdfResources(font, 11f, "")).write(CONTENT, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,98 @@
+package com.klinux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.klinux.creator.Dialog;
+import com.klinux.creator.MacDialog;
+import com.klinux.creator.WindowsDialog;
+import com.klinux.gui.factory.LinuxFactory;
+import com.klinux.gui.factory.MacFactory;
+import com.klinux.gui.factory.UIFactory;
+import com.klinux.gui.factory.WindowsFactory;
+
+// Abstract factory component creation and the factory-method Dialog.renderButton. The factory-method module
+// only has Windows and Mac dialogs, so the dialog benchmarks leave out the Linux factory's platform.
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UiBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Factories {
+
+        @Param({ "windows", "mac", "linux" })
+        public String platform;
+
+        UIFactory factory;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            switch (platform) {
+                case "mac":
+                    factory = new MacFactory();
+                    break;
+                case "linux":
+                    factory = new LinuxFactory();
+                    break;
+                default:
+                    factory = new WindowsFactory();
+                    break;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Dialogs {
+
+        @Param({ "windows", "mac" })
+        public String platform;
+
+        Dialog dialog;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Console.silence();
+            dialog = platform.equals("mac") ? new MacDialog() : new WindowsDialog();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Console.restore();
+        }
+    }
+
+    @Benchmark
+    public void createComponents(Factories factories, Blackhole blackhole) {
+        blackhole.consume(factories.factory.createButton());
+        blackhole.consume(factories.factory.createTextField());
+    }
+
+    @Benchmark
+    public void renderButton(Dialogs dialogs) {
+        dialogs.dialog.renderButton();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void renderButtonAllThreads(Dialogs dialogs) {
+        dialogs.dialog.renderButton();
+    }
+}
@@ -0,0 +1,70 @@
+package com.klinux.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import com.klinux.document.WordDocument;
+import com.klinux.document.word.WordTemplateCache;
+
+// A letterhead document rendered from the cached, pre-parsed template against re-parsing the
+// template package for every document
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordTemplateBenchmark {
+
+    private static final String CONTENT = "# Monthly statement\nAccount 0042\nBalance: 1,250.00 EUR";
+
+    private WordTemplateCache templateCache;
+    private byte[] templateBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        templateCache = new WordTemplateCache("letterhead");
+        templateCache.getDefault();
+        try (InputStream in = new ClassPathResource("templates/letterhead.docx").getInputStream()) {
+            templateBytes = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public void cachedTemplate() throws Exception {
+        new WordDocument(templateCache.getDefault()).write(CONTENT, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void cachedTemplateFourThreads() throws Exception {
+        new WordDocument(templateCache.getDefault()).write(CONTENT, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void parseTemplatePerDocument() throws Exception {
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(templateBytes))) {
+            for (String line : CONTENT.split("\n")) {
+                document.createParagraph().createRun().setText(line);
+            }
+            document.write(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.klinux.availability;
+
+import com.klinux.spec.PartCategory;
+
+public record PartAvailability(PartCategory category, String part, boolean available) {
+}
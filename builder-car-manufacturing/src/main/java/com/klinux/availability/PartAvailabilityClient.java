@@ -0,0 +1,13 @@
+package com.klinux.availability;
+
+import com.klinux.spec.PartCategory;
+
+import reactor.core.publisher.Mono;
+
+// Asks the parts service whether a part can be fitted now. Implementations must not block the
+// calling thread; the answer arrives when the lookup completes.
+public interface PartAvailabilityClient {
+
+    Mono<PartAvailability> check(PartCategory category, String part);
+
+}
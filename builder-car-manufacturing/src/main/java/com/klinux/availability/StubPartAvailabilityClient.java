@@ -0,0 +1,41 @@
+package com.klinux.availability;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.spec.PartCategory;
+
+import reactor.core.publisher.Mono;
+
+// Local stand-in for the parts service: every part is available except the names listed in
+// cars.availability.out-of-stock, and each answer arrives after cars.availability.latency-ms on a
+// timer, so a pending lookup holds no thread.
+@Component
+public class StubPartAvailabilityClient implements PartAvailabilityClient {
+
+    private final Duration latency;
+    private final Set<String> outOfStock;
+
+    public StubPartAvailabilityClient(@Value("${cars.availability.latency-ms:20}") long latencyMs,
+            @Value("${cars.availability.out-of-stock:}") String outOfStock) {
+        this.latency = Duration.ofMillis(latencyMs);
+        this.outOfStock = Arrays.stream(outOfStock.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .map(part -> part.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Mono<PartAvailability> check(PartCategory category, String part) {
+        boolean available = !outOfStock.contains(part.toLowerCase(Locale.ROOT));
+        Mono<PartAvailability> answer = Mono.just(new PartAvailability(category, part, available));
+        return latency.isZero() ? answer : answer.delayElement(latency);
+    }
+}
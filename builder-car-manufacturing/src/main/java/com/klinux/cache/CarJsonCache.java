@@ -0,0 +1,95 @@
+package com.klinux.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+
+// JSON of every preset car, serialized once with the application's ObjectMapper and kept as plain and
+// gzip bytes with their ETags. Entries are keyed by preset instance, so a lookup is one identity-map
+// get. The whole set is rebuilt when CarPresetRegistry.getVersion() changes.
+@Component
+public class CarJsonCache {
+
+    public record Entry(byte[] json, String etag, byte[] gzip, String gzipEtag) {
+    }
+
+    private record Snapshot(long version, Map<Car, Entry> entries) {
+    }
+
+    private final CarPresetRegistry carPresetRegistry;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+
+    public CarJsonCache(CarPresetRegistry carPresetRegistry, ObjectMapper objectMapper) {
+        this.carPresetRegistry = carPresetRegistry;
+        this.objectMapper = objectMapper;
+        this.snapshot = render();
+    }
+
+    // Serialized form of car; cars that are not current presets are serialized on every call
+    public Entry get(Car car) {
+        Snapshot current = snapshot;
+        if (current.version() != carPresetRegistry.getVersion()) {
+            current = refresh();
+        }
+        Entry entry = current.entries().get(car);
+        return entry != null ? entry : serialize(car);
+    }
+
+    private synchronized Snapshot refresh() {
+        if (snapshot.version() != carPresetRegistry.getVersion()) {
+            snapshot = render();
+        }
+        return snapshot;
+    }
+
+    private Snapshot render() {
+        // Version first: a preset registered meanwhile leaves the snapshot stale, so it is rebuilt again
+        long version = carPresetRegistry.getVersion();
+        Map<Car, Entry> entries = new IdentityHashMap<>();
+        for (Car preset : carPresetRegistry.getPresets().values()) {
+            entries.put(preset, serialize(preset));
+        }
+        return new Snapshot(version, Collections.unmodifiableMap(entries));
+    }
+
+    private Entry serialize(Car car) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(car);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            String tag = tagOf(json);
+            // A representation's ETag has to change with its Content-Encoding
+            return new Entry(json, "\"" + tag + "\"", gzip.toByteArray(), "\"" + tag + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize car " + car.getModel(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String tagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
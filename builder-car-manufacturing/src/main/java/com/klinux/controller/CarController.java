@@ -1,21 +1,147 @@
 package com.klinux.controller;
 
+import java.io.IOException;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.klinux.cache.CarJsonCache;
 import com.klinux.model.Car;
 import com.klinux.service.ICarService;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+
+import jakarta.servlet.http.HttpServletResponse;
 
+// Servlet endpoints; the "reactive" profile serves ReactiveCarController and InventoryController instead
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CarController {
 
     @Autowired
     private ICarService carService;
 
+    @Autowired
+    private CarJsonCache carJsonCache;
+
+    @Autowired
+    private CarSpecEngine carSpecEngine;
+
+    // The JSON is pre-serialized (see CarJsonCache) and copied straight to the response, gzipped when
+    // the client accepts it; a matching If-None-Match answers 304 without a body
     @GetMapping("/buildCar/{model}")
-    public Car buildCar(@PathVariable String model) {
-        return carService.buildCar(model);
+    public void buildCar(@PathVariable String model,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        Car car = carService.buildCar(model);
+        CarJsonCache.Entry entry = carJsonCache.get(car);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? entry.gzipEtag() : entry.etag();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(ifNoneMatch, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        byte[] body = gzip ? entry.gzip() : entry.json();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // One custom configuration, e.g. {"preset":"suv","wheels":"20-alloy"}
+    @PostMapping("/buildCar")
+    public ResponseEntity<Car> buildCar(@RequestBody CarSpec spec) {
+        try {
+            return ResponseEntity.ok(carSpecEngine.build(spec));
+        } catch (IllegalArgumentException e) {
+            // Unknown preset or part, or a part missing without a preset
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Many configurations at once, streamed back as NDJSON in request order (see CarSpecEngine)
+    @PostMapping(value = "/buildCars", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> buildCars(@RequestBody List<CarSpec> specs) {
+        try {
+            carSpecEngine.checkSize(specs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> carSpecEngine.writeNdjson(specs, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // gzip is accepted when its q-value is above 0; without a gzip entry, "*" decides
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+            double q = semicolon < 0 ? 1 : qValue(coding.substring(semicolon + 1));
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    // The q parameter of one Accept-Encoding entry; 1 when absent, 0 when malformed
+    private static double qValue(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter.substring(equals + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Only the tag of the representation being sent counts: a client holding the plain JSON must not get
+    // a 304 for the gzip variant. If-None-Match compares weakly, so a W/ prefix is ignored.
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
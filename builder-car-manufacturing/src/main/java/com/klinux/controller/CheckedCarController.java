@@ -0,0 +1,26 @@
+package com.klinux.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.klinux.model.Car;
+import com.klinux.service.IReactiveCarService;
+
+// The same car as /reactive/buildCar/{model}, waited for on the Tomcat request thread: the blocking
+// baseline for CarLoadTest in benchmarks/. Kept apart from CarController, whose endpoints never block on
+// the reactive service, and only registered on the servlet stack, where block() is allowed.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CheckedCarController {
+
+    @Autowired
+    private IReactiveCarService reactiveCarService;
+
+    @GetMapping("/buildCar/{model}/checked")
+    public Car buildCheckedCar(@PathVariable String model) {
+        return reactiveCarService.buildCar(model).block();
+    }
+}
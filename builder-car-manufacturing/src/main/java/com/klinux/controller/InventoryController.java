@@ -0,0 +1,95 @@
+package com.klinux.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.klinux.inventory.CarInventory;
+import com.klinux.inventory.InventoryQuery;
+import com.klinux.model.Car;
+import com.klinux.spec.CarConfiguration;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCategory;
+
+// Stock queries over CarInventory. Every filter parameter is optional and takes a catalog code or name;
+// an unknown part or category answers 400.
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+
+    @Autowired
+    private CarInventory carInventory;
+
+    @Autowired
+    private CarSpecEngine carSpecEngine;
+
+    // Adds one car per spec; answers the inventory size afterwards
+    @PostMapping
+    public ResponseEntity<Integer> addCars(@RequestBody List<CarSpec> specs) {
+        List<CarConfiguration> configurations = new ArrayList<>(specs.size());
+        try {
+            for (CarSpec spec : specs) {
+                configurations.add(carSpecEngine.resolve(spec));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        carInventory.addAll(configurations);
+        return ResponseEntity.ok(carInventory.size());
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<Integer> count(@RequestParam(required = false) String model,
+            @RequestParam(required = false) String engine, @RequestParam(required = false) String wheels,
+            @RequestParam(required = false) String doors, @RequestParam(required = false) String interior) {
+        try {
+            return ResponseEntity.ok(carInventory.count(new InventoryQuery(model, engine, wheels, doors, interior)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Matching cars per part of one category, e.g. /inventory/facets/engine?model=suv
+    @GetMapping("/facets/{category}")
+    public ResponseEntity<Map<String, Integer>> facets(@PathVariable String category,
+            @RequestParam(required = false) String model, @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String wheels, @RequestParam(required = false) String doors,
+            @RequestParam(required = false) String interior) {
+        try {
+            return ResponseEntity.ok(carInventory.countBy(PartCategory.fromKey(category),
+                    new InventoryQuery(model, engine, wheels, doors, interior)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Only the cars on the page are built as Car objects
+    @GetMapping("/cars")
+    public ResponseEntity<List<Car>> cars(@RequestParam(required = false) String model,
+            @RequestParam(required = false) String engine, @RequestParam(required = false) String wheels,
+            @RequestParam(required = false) String doors, @RequestParam(required = false) String interior,
+            @RequestParam(defaultValue = "100") int limit) {
+        int[] rows;
+        try {
+            rows = carInventory.rows(new InventoryQuery(model, engine, wheels, doors, interior), Math.min(limit, 1000));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Car> cars = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            cars.add(carInventory.car(row));
+        }
+        return ResponseEntity.ok(cars);
+    }
+}
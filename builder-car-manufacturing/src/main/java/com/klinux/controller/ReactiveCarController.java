@@ -0,0 +1,48 @@
+package com.klinux.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.klinux.model.Car;
+import com.klinux.service.IReactiveCarService;
+import com.klinux.spec.CarSpec;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The car API with part-availability checks, without holding a thread while the checks are pending.
+// Only served with the "reactive" profile (WebFlux on Netty).
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/reactive")
+public class ReactiveCarController {
+
+    @Autowired
+    private IReactiveCarService reactiveCarService;
+
+    @GetMapping("/buildCar/{model}")
+    public Mono<Car> buildCar(@PathVariable String model) {
+        return reactiveCarService.buildCar(model);
+    }
+
+    @PostMapping("/buildCar")
+    public Mono<Car> buildCar(@RequestBody Mono<CarSpec> spec) {
+        return spec.flatMap(reactiveCarService::buildCar);
+    }
+
+    // Takes a JSON array or NDJSON of specs and streams one NDJSON line per spec, in order. The body is
+    // decoded as the cars are written, so the request size is not limited; a spec that cannot be built
+    // becomes a BuildError line and the stream goes on.
+    @PostMapping(value = "/buildCars", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> buildCars(@RequestBody Flux<CarSpec> specs) {
+        return reactiveCarService.buildCars(specs);
+    }
+}
@@ -1,7 +1,11 @@
 package com.klinux.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InvalidCarModelException extends RuntimeException {
     public InvalidCarModelException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+}
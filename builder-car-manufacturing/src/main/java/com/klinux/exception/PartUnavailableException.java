@@ -0,0 +1,11 @@
+package com.klinux.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PartUnavailableException extends RuntimeException {
+    public PartUnavailableException(String message) {
+        super(message);
+    }
+}
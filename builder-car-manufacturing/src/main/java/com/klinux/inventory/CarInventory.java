@@ -0,0 +1,278 @@
+package com.klinux.inventory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.model.Car;
+import com.klinux.spec.CarConfiguration;
+import com.klinux.spec.PartCatalog;
+import com.klinux.spec.PartCategory;
+import com.klinux.spec.PartTable;
+
+// Cars in stock, stored column by column instead of as Car objects: each row is one car, and each
+// PartCategory column holds the part's short index in the PartCatalog, so a car costs 2 bytes per part
+// (plus 4 bytes per indexed part) whatever the length of the part names.
+// - With cars.inventory.off-heap the columns live in direct buffers; the indexes stay on the heap.
+// - Model, engine and interior have a RowIndex; a query walks the rows of its most selective indexed
+//   part and checks the other parts in the columns, or scans every row when it names no indexed part.
+// - count(), countBy() and rows() answer from the columns alone; car() builds a Car only when asked.
+// Readers share a read lock; add() takes the write lock, so a query always sees whole rows.
+@Component
+public class CarInventory {
+
+    private static final PartCategory[] INDEXED = { PartCategory.MODEL, PartCategory.ENGINE, PartCategory.INTERIOR };
+    private static final PartCategory[] CATEGORIES = PartCategory.values();
+    private static final short ANY = -1;
+
+    private final PartCatalog partCatalog;
+    private final ShortColumn[] columns = new ShortColumn[CATEGORIES.length];
+    private final RowIndex[] indexes = new RowIndex[CATEGORIES.length];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    public CarInventory(PartCatalog partCatalog,
+            @Value("${cars.inventory.off-heap:false}") boolean offHeap,
+            @Value("${cars.inventory.initial-capacity:1024}") int initialCapacity) {
+        this.partCatalog = partCatalog;
+        for (PartCategory category : CATEGORIES) {
+            columns[category.ordinal()] = ShortColumn.create(offHeap, initialCapacity);
+        }
+        for (PartCategory category : INDEXED) {
+            indexes[category.ordinal()] = new RowIndex(partCatalog.table(category).size());
+        }
+    }
+
+    // Returns the new car's row
+    public int add(CarConfiguration configuration) {
+        lock.writeLock().lock();
+        try {
+            return append(configuration);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the row of the first car; the others follow in order
+    public int addAll(Collection<CarConfiguration> configurations) {
+        lock.writeLock().lock();
+        try {
+            int first = size;
+            for (CarConfiguration configuration : configurations) {
+                append(configuration);
+            }
+            return first;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(CarConfiguration configuration) {
+        if (size == ShortColumn.MAX_ROWS) {
+            throw new IllegalStateException("The inventory is full (" + size + " cars)");
+        }
+        int row = size;
+        for (ShortColumn column : columns) {
+            column.ensureCapacity(row + 1);
+        }
+        set(PartCategory.MODEL, row, configuration.model());
+        set(PartCategory.ENGINE, row, configuration.engine());
+        set(PartCategory.WHEELS, row, configuration.wheels());
+        set(PartCategory.DOORS, row, configuration.doors());
+        set(PartCategory.INTERIOR, row, configuration.interior());
+        size = row + 1;
+        return row;
+    }
+
+    private void set(PartCategory category, int row, short value) {
+        columns[category.ordinal()].set(row, value);
+        RowIndex index = indexes[category.ordinal()];
+        if (index != null) {
+            index.add(value, row);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CarConfiguration configuration(int row) {
+        lock.readLock().lock();
+        try {
+            checkRow(row);
+            return new CarConfiguration(get(PartCategory.MODEL, row), get(PartCategory.ENGINE, row),
+                    get(PartCategory.WHEELS, row), get(PartCategory.DOORS, row), get(PartCategory.INTERIOR, row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Car car(int row) {
+        CarConfiguration configuration = configuration(row);
+        return Car.builder()
+                .model(partCatalog.table(PartCategory.MODEL).nameOf(configuration.model()))
+                .engine(partCatalog.table(PartCategory.ENGINE).nameOf(configuration.engine()))
+                .wheels(partCatalog.table(PartCategory.WHEELS).nameOf(configuration.wheels()))
+                .doors(partCatalog.table(PartCategory.DOORS).nameOf(configuration.doors()))
+                .interior(partCatalog.table(PartCategory.INTERIOR).nameOf(configuration.interior()))
+                .build();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("No car at row " + row + " (inventory has " + size + ")");
+        }
+    }
+
+    private short get(PartCategory category, int row) {
+        return columns[category.ordinal()].get(row);
+    }
+
+    public int count(InventoryQuery query) {
+        int[] count = new int[1];
+        scan(query, row -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    // The first limit matching rows, in row order
+    public int[] rows(InventoryQuery query, int limit) {
+        if (limit <= 0) {
+            return new int[0];
+        }
+        int[] found = new int[1];
+        int[][] buffer = { new int[Math.min(limit, 1024)] };
+        scan(query, row -> {
+            if (found[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], (int) Math.min(limit, buffer[0].length * 2L));
+            }
+            buffer[0][found[0]++] = row;
+            return found[0] < limit;
+        });
+        return Arrays.copyOf(buffer[0], found[0]);
+    }
+
+    // Matching cars per part of category, by part name in catalog order; parts with no match are left out
+    public Map<String, Integer> countBy(PartCategory category, InventoryQuery query) {
+        PartTable table = partCatalog.table(category);
+        int[] counts = new int[table.size()];
+        ShortColumn column = columns[category.ordinal()];
+        scan(query, row -> {
+            counts[column.get(row)]++;
+            return true;
+        });
+
+        Map<String, Integer> byPart = new LinkedHashMap<>();
+        for (int part = 0; part < counts.length; part++) {
+            if (counts[part] > 0) {
+                byPart.put(table.nameOf(part), counts[part]);
+            }
+        }
+        return Collections.unmodifiableMap(byPart);
+    }
+
+    // Bytes of heap held by the columns and indexes; capacity, not just the rows in use
+    public long heapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (ShortColumn column : columns) {
+                bytes += column.offHeapBytes() == 0 ? (long) column.capacity() * Short.BYTES : 0;
+            }
+            for (RowIndex index : indexes) {
+                bytes += index == null ? 0 : index.heapBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Bytes held by direct-buffer columns
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (ShortColumn column : columns) {
+                bytes += column.offHeapBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Calls visitor with each matching row in ascending order until it returns false
+    private void scan(InventoryQuery query, IntPredicate visitor) {
+        short[] filter = resolve(query);
+        lock.readLock().lock();
+        try {
+            PartCategory driver = null;
+            int driverCount = size;
+            for (PartCategory category : INDEXED) {
+                short part = filter[category.ordinal()];
+                if (part != ANY && indexes[category.ordinal()].count(part) <= driverCount) {
+                    driver = category;
+                    driverCount = indexes[category.ordinal()].count(part);
+                }
+            }
+
+            if (driver != null) {
+                int[] rows = indexes[driver.ordinal()].rows(filter[driver.ordinal()]);
+                // The index already matched the driving part
+                filter[driver.ordinal()] = ANY;
+                for (int i = 0; i < driverCount; i++) {
+                    if (matches(filter, rows[i]) && !visitor.test(rows[i])) {
+                        return;
+                    }
+                }
+            } else {
+                for (int row = 0; row < size; row++) {
+                    if (matches(filter, row) && !visitor.test(row)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(short[] filter, int row) {
+        for (int category = 0; category < filter.length; category++) {
+            if (filter[category] != ANY && columns[category].get(row) != filter[category]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Unknown parts throw IllegalArgumentException, as in CarSpecEngine
+    private short[] resolve(InventoryQuery query) {
+        short[] filter = new short[CATEGORIES.length];
+        filter[PartCategory.MODEL.ordinal()] = part(PartCategory.MODEL, query.model());
+        filter[PartCategory.ENGINE.ordinal()] = part(PartCategory.ENGINE, query.engine());
+        filter[PartCategory.WHEELS.ordinal()] = part(PartCategory.WHEELS, query.wheels());
+        filter[PartCategory.DOORS.ordinal()] = part(PartCategory.DOORS, query.doors());
+        filter[PartCategory.INTERIOR.ordinal()] = part(PartCategory.INTERIOR, query.interior());
+        return filter;
+    }
+
+    private short part(PartCategory category, String codeOrName) {
+        return codeOrName == null ? ANY : partCatalog.table(category).require(codeOrName);
+    }
+}
@@ -0,0 +1,48 @@
+package com.klinux.inventory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Column stored in a direct buffer, so a large inventory adds little to the heap the GC has to trace.
+// The buffer of a replaced column is freed when the buffer object itself is collected.
+class DirectShortColumn extends ShortColumn {
+
+    private ByteBuffer values;
+
+    DirectShortColumn(int capacity) {
+        this.values = allocate(Math.max(1, capacity));
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Short.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    short get(int row) {
+        return values.getShort(row * Short.BYTES);
+    }
+
+    @Override
+    void set(int row, short value) {
+        values.putShort(row * Short.BYTES, value);
+    }
+
+    @Override
+    int capacity() {
+        return values.capacity() / Short.BYTES;
+    }
+
+    @Override
+    void ensureCapacity(int rows) {
+        if (rows > capacity()) {
+            ByteBuffer grown = allocate(grownCapacity(capacity(), rows));
+            grown.put(values.duplicate().clear());
+            values = grown;
+        }
+    }
+
+    @Override
+    long offHeapBytes() {
+        return values.capacity();
+    }
+}
@@ -0,0 +1,39 @@
+package com.klinux.inventory;
+
+import java.util.Arrays;
+
+class HeapShortColumn extends ShortColumn {
+
+    private short[] values;
+
+    HeapShortColumn(int capacity) {
+        this.values = new short[Math.max(1, capacity)];
+    }
+
+    @Override
+    short get(int row) {
+        return values[row];
+    }
+
+    @Override
+    void set(int row, short value) {
+        values[row] = value;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void ensureCapacity(int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, grownCapacity(values.length, rows));
+        }
+    }
+
+    @Override
+    long offHeapBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.klinux.inventory;
+
+// Filter on inventory rows; each part is a catalog code or name, and null matches any part
+public record InventoryQuery(String model, String engine, String wheels, String doors, String interior) {
+
+    public static final InventoryQuery ALL = new InventoryQuery(null, null, null, null, null);
+}
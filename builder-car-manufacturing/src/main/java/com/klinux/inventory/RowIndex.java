@@ -0,0 +1,45 @@
+package com.klinux.inventory;
+
+import java.util.Arrays;
+
+// Secondary index on one column: for each part index, the rows holding it, in ascending order
+class RowIndex {
+
+    private static final int INITIAL_ROWS = 16;
+
+    private final int[][] rows;
+    private final int[] counts;
+
+    RowIndex(int values) {
+        this.rows = new int[values][];
+        this.counts = new int[values];
+    }
+
+    void add(short value, int row) {
+        int[] valueRows = rows[value];
+        if (valueRows == null) {
+            valueRows = rows[value] = new int[INITIAL_ROWS];
+        } else if (counts[value] == valueRows.length) {
+            valueRows = rows[value] = Arrays.copyOf(valueRows, valueRows.length * 2);
+        }
+        valueRows[counts[value]++] = row;
+    }
+
+    int count(short value) {
+        return counts[value];
+    }
+
+    // The backing array; only the first count(value) entries are rows
+    int[] rows(short value) {
+        int[] valueRows = rows[value];
+        return valueRows == null ? new int[0] : valueRows;
+    }
+
+    long heapBytes() {
+        long bytes = 0;
+        for (int[] valueRows : rows) {
+            bytes += valueRows == null ? 0 : (long) valueRows.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.klinux.inventory;
+
+// One column of the inventory: a short per row, holding the part's index in its PartTable.
+// Rows are only appended; ensureCapacity() grows the storage by copying it.
+abstract class ShortColumn {
+
+    // The largest column a direct buffer can address in bytes
+    static final int MAX_ROWS = Integer.MAX_VALUE / Short.BYTES;
+
+    static ShortColumn create(boolean offHeap, int capacity) {
+        return offHeap ? new DirectShortColumn(capacity) : new HeapShortColumn(capacity);
+    }
+
+    abstract short get(int row);
+
+    abstract void set(int row, short value);
+
+    abstract int capacity();
+
+    abstract void ensureCapacity(int rows);
+
+    // Bytes held outside the Java heap
+    abstract long offHeapBytes();
+
+    static int grownCapacity(int capacity, int rows) {
+        return (int) Math.min(MAX_ROWS, Math.max(rows, capacity * 2L));
+    }
+}
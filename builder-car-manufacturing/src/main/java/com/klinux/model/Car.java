@@ -1,14 +1,18 @@
 package com.klinux.model;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
 
-@Data
-@Builder
+// Immutable, so one instance per preset can be shared by every request (see CarPresetRegistry).
+// Variants are copies: preset.withWheels("19-inch Alloy") or preset.toBuilder()...build().
+@Value
+@Builder(toBuilder = true)
+@With
 public class Car {
-    private String model;
-    private String engine;
-    private String wheels;
-    private String doors;
-    private String interior;
-}
\ No newline at end of file
+    String model;
+    String engine;
+    String wheels;
+    String doors;
+    String interior;
+}
@@ -0,0 +1,86 @@
+package com.klinux.preset;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.klinux.builder.SUVBuilder;
+import com.klinux.builder.SedanBuilder;
+import com.klinux.builder.TruckBuilder;
+import com.klinux.model.Car;
+import com.klinux.util.CaseInsensitiveIndex;
+
+// The preset cars, built once by their builders and shared: Car is immutable, so a lookup returns the
+// same instance every time and allocates nothing. Models resolve through a CaseInsensitiveIndex, so no
+// lower-cased copy of the request string is made either.
+// register() replaces the whole table (copy-on-write); readers never lock and always see a complete table.
+@Component
+public class CarPresetRegistry {
+
+    private record Table(CaseInsensitiveIndex index, Car[] presets, Map<String, Car> byModel, long version) {
+    }
+
+    private volatile Table table;
+
+    public CarPresetRegistry() {
+        this(defaultPresets());
+    }
+
+    CarPresetRegistry(Map<String, Car> presets) {
+        this.table = newTable(presets, 1);
+    }
+
+    private static Map<String, Car> defaultPresets() {
+        Map<String, Car> presets = new LinkedHashMap<>();
+        presets.put("sedan", new SedanBuilder().build());
+        presets.put("suv", new SUVBuilder().build());
+        presets.put("truck", new TruckBuilder().build());
+        return presets;
+    }
+
+    public Car getPreset(String model) {
+        Table current = table;
+        int preset = current.index().get(model);
+        if (preset < 0) {
+            throw new IllegalArgumentException("Invalid car model");
+        }
+        return current.presets()[preset];
+    }
+
+    // Every preset by model key, in registration order
+    public Map<String, Car> getPresets() {
+        return table.byModel();
+    }
+
+    // Incremented by every register(); lets caches built from the presets notice a change
+    public long getVersion() {
+        return table.version();
+    }
+
+    // Adds or replaces the preset for model (matched case-insensitively)
+    public synchronized void register(String model, Car preset) {
+        Map<String, Car> presets = new LinkedHashMap<>();
+        table.byModel().forEach((key, car) -> {
+            if (!key.equalsIgnoreCase(model)) {
+                presets.put(key, car);
+            }
+        });
+        presets.put(model, preset);
+        table = newTable(presets, table.version() + 1);
+    }
+
+    private static Table newTable(Map<String, Car> presets, long version) {
+        CaseInsensitiveIndex index = new CaseInsensitiveIndex(presets.size());
+        Car[] cars = new Car[presets.size()];
+        int i = 0;
+        for (Map.Entry<String, Car> preset : presets.entrySet()) {
+            if (!index.put(preset.getKey(), i)) {
+                throw new IllegalStateException("Duplicate car model '" + preset.getKey() + "'");
+            }
+            cars[i++] = preset.getValue();
+        }
+        return new Table(index, cars, Collections.unmodifiableMap(new LinkedHashMap<>(presets)), version);
+    }
+}
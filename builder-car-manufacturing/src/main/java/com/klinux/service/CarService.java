@@ -1,25 +1,33 @@
 package com.klinux.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.klinux.builder.SUVBuilder;
-import com.klinux.builder.SedanBuilder;
-import com.klinux.builder.TruckBuilder;
+import com.klinux.exception.InvalidCarModelException;
 import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
 
 @Service
 public class CarService implements ICarService{
 
+    private final CarPresetRegistry carPresetRegistry;
+
+    public CarService() {
+        this(new CarPresetRegistry());
+    }
+
+    @Autowired
+    public CarService(CarPresetRegistry carPresetRegistry) {
+        this.carPresetRegistry = carPresetRegistry;
+    }
+
+    // The shared preset instance; it is immutable, use its with* methods for a modified copy.
+    // An unknown model fails with InvalidCarModelException (400), as in ReactiveCarService.
     public Car buildCar(String model) {
-        switch (model.toLowerCase()) {
-            case "sedan":
-                return new SedanBuilder().build();
-            case "suv":
-                return new SUVBuilder().build();
-            case "truck":
-                return new TruckBuilder().build();
-            default:
-                throw new IllegalArgumentException("Invalid car model");
+        try {
+            return carPresetRegistry.getPreset(model);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCarModelException(e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
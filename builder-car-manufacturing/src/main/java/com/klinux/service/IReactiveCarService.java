@@ -0,0 +1,18 @@
+package com.klinux.service;
+
+import com.klinux.model.Car;
+import com.klinux.spec.CarSpec;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IReactiveCarService {
+
+	Mono<Car> buildCar(String model);
+
+	Mono<Car> buildCar(CarSpec spec);
+
+	// Car or BuildError per spec, in spec order
+	Flux<Object> buildCars(Flux<CarSpec> specs);
+
+}
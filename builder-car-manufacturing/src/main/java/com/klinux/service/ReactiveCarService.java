@@ -0,0 +1,98 @@
+package com.klinux.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.klinux.availability.PartAvailabilityClient;
+import com.klinux.exception.InvalidCarModelException;
+import com.klinux.exception.PartUnavailableException;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.spec.BuildError;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCategory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Builds a car like CarService or CarSpecEngine, then checks that its engine, wheels, doors and interior
+// are available before handing it out.
+// - The lookups of one car run concurrently, at most cars.availability.concurrency at a time, and the
+//   first unavailable part cancels the rest and fails the car with PartUnavailableException (409).
+// - buildCars() works on at most cars.reactive.bulk-concurrency specs at a time and asks the upstream for
+//   more only as cars are consumed, so a slow client slows the reading of the request body instead of
+//   filling memory. Results come out in spec order; a spec that cannot be built becomes a BuildError.
+// An unknown model or part fails with InvalidCarModelException (400).
+@Service
+public class ReactiveCarService implements IReactiveCarService {
+
+    private static final PartCategory[] CHECKED = { PartCategory.ENGINE, PartCategory.WHEELS, PartCategory.DOORS,
+            PartCategory.INTERIOR };
+
+    private final CarPresetRegistry carPresetRegistry;
+    private final CarSpecEngine carSpecEngine;
+    private final PartAvailabilityClient partAvailabilityClient;
+    private final int lookupConcurrency;
+    private final int bulkConcurrency;
+
+    public ReactiveCarService(CarPresetRegistry carPresetRegistry, CarSpecEngine carSpecEngine,
+            PartAvailabilityClient partAvailabilityClient,
+            @Value("${cars.availability.concurrency:4}") int lookupConcurrency,
+            @Value("${cars.reactive.bulk-concurrency:64}") int bulkConcurrency) {
+        this.carPresetRegistry = carPresetRegistry;
+        this.carSpecEngine = carSpecEngine;
+        this.partAvailabilityClient = partAvailabilityClient;
+        this.lookupConcurrency = Math.max(1, lookupConcurrency);
+        this.bulkConcurrency = Math.max(1, bulkConcurrency);
+    }
+
+    @Override
+    public Mono<Car> buildCar(String model) {
+        return Mono.fromCallable(() -> carPresetRegistry.getPreset(model))
+                .onErrorMap(IllegalArgumentException.class, e -> new InvalidCarModelException(e.getMessage()))
+                .flatMap(this::checkAvailability);
+    }
+
+    @Override
+    public Mono<Car> buildCar(CarSpec spec) {
+        return Mono.fromCallable(() -> carSpecEngine.build(spec))
+                .onErrorMap(IllegalArgumentException.class, e -> new InvalidCarModelException(e.getMessage()))
+                .flatMap(this::checkAvailability);
+    }
+
+    // A Car or, for a spec that failed, a BuildError per spec; one failure does not end the stream
+    @Override
+    public Flux<Object> buildCars(Flux<CarSpec> specs) {
+        return specs.index()
+                .flatMapSequential(indexed -> buildCar(indexed.getT2())
+                        .<Object>map(car -> car)
+                        .onErrorResume(e -> Mono.just(new BuildError(indexed.getT1().intValue(), e.getMessage()))),
+                        bulkConcurrency);
+    }
+
+    private Mono<Car> checkAvailability(Car car) {
+        return Flux.fromArray(CHECKED)
+                .flatMap(category -> partAvailabilityClient.check(category, partOf(car, category)), lookupConcurrency)
+                .filter(availability -> !availability.available())
+                .next()
+                .flatMap(missing -> Mono.<Car>error(new PartUnavailableException(
+                        "Part unavailable: " + missing.category().getKey() + " " + missing.part())))
+                .defaultIfEmpty(car);
+    }
+
+    private static String partOf(Car car, PartCategory category) {
+        switch (category) {
+        case ENGINE:
+            return car.getEngine();
+        case WHEELS:
+            return car.getWheels();
+        case DOORS:
+            return car.getDoors();
+        case INTERIOR:
+            return car.getInterior();
+        default:
+            return car.getModel();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.klinux.spec;
+
+// NDJSON line written in place of a car whose spec could not be resolved; index is its position in the request
+public record BuildError(int index, String error) {
+}
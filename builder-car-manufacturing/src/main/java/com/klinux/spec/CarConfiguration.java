@@ -0,0 +1,15 @@
+package com.klinux.spec;
+
+// A resolved CarSpec: the index of each part in its PartTable
+public record CarConfiguration(short model, short engine, short wheels, short doors, short interior) {
+
+    // Position of this configuration among all PartCatalog.combinations(), for tables indexed by configuration
+    public long ordinal(PartCatalog catalog) {
+        long ordinal = model;
+        ordinal = ordinal * catalog.table(PartCategory.ENGINE).size() + engine;
+        ordinal = ordinal * catalog.table(PartCategory.WHEELS).size() + wheels;
+        ordinal = ordinal * catalog.table(PartCategory.DOORS).size() + doors;
+        ordinal = ordinal * catalog.table(PartCategory.INTERIOR).size() + interior;
+        return ordinal;
+    }
+}
@@ -0,0 +1,6 @@
+package com.klinux.spec;
+
+// One requested configuration. Parts are catalog codes or names; any part left out is taken
+// from the preset, when one is given.
+public record CarSpec(String preset, String model, String engine, String wheels, String doors, String interior) {
+}
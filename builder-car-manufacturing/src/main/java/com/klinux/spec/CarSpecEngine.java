@@ -0,0 +1,160 @@
+package com.klinux.spec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+// Builds cars from CarSpecs against the PartCatalog instead of the fixed builders.
+// - A spec resolves to a CarConfiguration of part indexes; the Car carries the catalog's interned names,
+//   so thousands of cars share a handful of Strings.
+// - writeNdjson() builds a whole request on a ForkJoinPool of cars.bulk.parallelism threads, in chunks of
+//   cars.bulk.chunk-size specs, and writes the chunks in request order as they complete, so the client
+//   starts reading before the last car is built. A spec that cannot be resolved becomes a BuildError line.
+// - When the catalog describes at most cars.bulk.json-cache-limit cars, each configuration is serialized
+//   once and its JSON line reused; a configurator asking for the same combinations repeatedly then costs
+//   a table lookup per car.
+@Component
+public class CarSpecEngine {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PartCatalog partCatalog;
+    private final CarPresetRegistry carPresetRegistry;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxSpecs;
+    private final AtomicReferenceArray<byte[]> jsonLines;
+
+    public CarSpecEngine(PartCatalog partCatalog, CarPresetRegistry carPresetRegistry, ObjectMapper objectMapper,
+            @Value("${cars.bulk.parallelism:0}") int parallelism,
+            @Value("${cars.bulk.chunk-size:256}") int chunkSize,
+            @Value("${cars.bulk.max-specs:100000}") int maxSpecs,
+            @Value("${cars.bulk.json-cache-limit:65536}") int jsonCacheLimit) {
+        this.partCatalog = partCatalog;
+        this.carPresetRegistry = carPresetRegistry;
+        this.objectMapper = objectMapper;
+        // 0 means one thread per core
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxSpecs = maxSpecs;
+        long combinations = partCatalog.combinations();
+        this.jsonLines = combinations <= jsonCacheLimit ? new AtomicReferenceArray<>((int) combinations) : null;
+    }
+
+    public Car build(CarSpec spec) {
+        return toCar(resolve(spec));
+    }
+
+    public CarConfiguration resolve(CarSpec spec) {
+        Car preset = spec.preset() == null ? null : carPresetRegistry.getPreset(spec.preset());
+        return new CarConfiguration(
+                part(PartCategory.MODEL, spec.model(), preset == null ? null : preset.getModel()),
+                part(PartCategory.ENGINE, spec.engine(), preset == null ? null : preset.getEngine()),
+                part(PartCategory.WHEELS, spec.wheels(), preset == null ? null : preset.getWheels()),
+                part(PartCategory.DOORS, spec.doors(), preset == null ? null : preset.getDoors()),
+                part(PartCategory.INTERIOR, spec.interior(), preset == null ? null : preset.getInterior()));
+    }
+
+    private short part(PartCategory category, String requested, String fromPreset) {
+        String value = requested != null ? requested : fromPreset;
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + category.getKey());
+        }
+        return partCatalog.table(category).require(value);
+    }
+
+    public Car toCar(CarConfiguration configuration) {
+        return Car.builder()
+                .model(partCatalog.table(PartCategory.MODEL).nameOf(configuration.model()))
+                .engine(partCatalog.table(PartCategory.ENGINE).nameOf(configuration.engine()))
+                .wheels(partCatalog.table(PartCategory.WHEELS).nameOf(configuration.wheels()))
+                .doors(partCatalog.table(PartCategory.DOORS).nameOf(configuration.doors()))
+                .interior(partCatalog.table(PartCategory.INTERIOR).nameOf(configuration.interior()))
+                .build();
+    }
+
+    public void checkSize(List<CarSpec> specs) {
+        if (specs.size() > maxSpecs) {
+            throw new IllegalArgumentException("Too many specs: " + specs.size() + " (at most " + maxSpecs + ")");
+        }
+    }
+
+    // One JSON line per spec, in request order. At most twice the pool's parallelism chunks are built ahead
+    // of the one being written, which bounds the memory held for a slow client.
+    public void writeNdjson(List<CarSpec> specs, OutputStream out) throws IOException {
+        checkSize(specs);
+        int window = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        try {
+            for (int start = 0; start < specs.size(); start += chunkSize) {
+                int from = start;
+                int to = Math.min(specs.size(), start + chunkSize);
+                inFlight.addLast(pool.submit(() -> buildChunk(specs, from, to)));
+                if (inFlight.size() >= window) {
+                    writeChunk(inFlight.pollFirst(), out);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(inFlight.pollFirst(), out);
+            }
+        } finally {
+            // Only non-empty when the client went away; the remaining chunks are not needed
+            inFlight.forEach(task -> task.cancel(false));
+        }
+    }
+
+    private static void writeChunk(ForkJoinTask<byte[]> chunk, OutputStream out) throws IOException {
+        out.write(chunk.join());
+        out.flush();
+    }
+
+    private byte[] buildChunk(List<CarSpec> specs, int from, int to) throws JsonProcessingException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((to - from) * 128);
+        for (int i = from; i < to; i++) {
+            byte[] line;
+            try {
+                line = jsonLine(resolve(specs.get(i)));
+            } catch (IllegalArgumentException e) {
+                line = objectMapper.writeValueAsBytes(new BuildError(i, e.getMessage()));
+            }
+            buffer.writeBytes(line);
+            buffer.write(NEWLINE);
+        }
+        return buffer.toByteArray();
+    }
+
+    byte[] jsonLine(CarConfiguration configuration) throws JsonProcessingException {
+        if (jsonLines == null) {
+            return objectMapper.writeValueAsBytes(toCar(configuration));
+        }
+        int ordinal = (int) configuration.ordinal(partCatalog);
+        byte[] line = jsonLines.get(ordinal);
+        if (line == null) {
+            // Two threads may serialize the same configuration once each; both results are identical
+            line = objectMapper.writeValueAsBytes(toCar(configuration));
+            jsonLines.set(ordinal, line);
+        }
+        return line;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.klinux.spec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+// The parts a car can be built from, one PartTable per PartCategory, loaded once from cars.catalog
+// (default catalog/parts.csv). Each line is category,code,name; blank lines and # comments are skipped.
+@Component
+public class PartCatalog {
+
+    private final PartTable[] tables = new PartTable[PartCategory.values().length];
+
+    public PartCatalog(@Value("${cars.catalog:classpath:catalog/parts.csv}") Resource catalog) throws IOException {
+        try (Reader reader = new InputStreamReader(catalog.getInputStream(), StandardCharsets.UTF_8)) {
+            load(reader, catalog.getDescription());
+        }
+    }
+
+    PartCatalog(Reader reader) throws IOException {
+        load(reader, "catalog");
+    }
+
+    private void load(Reader reader, String source) throws IOException {
+        List<List<String>> codes = new ArrayList<>();
+        List<List<String>> names = new ArrayList<>();
+        for (int i = 0; i < tables.length; i++) {
+            codes.add(new ArrayList<>());
+            names.add(new ArrayList<>());
+        }
+
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", 3);
+            if (fields.length != 3 || fields[1].isBlank() || fields[2].isBlank()) {
+                throw new IllegalStateException(source + " line " + lineNumber + ": expected category,code,name");
+            }
+            int category = PartCategory.fromKey(fields[0].trim()).ordinal();
+            codes.get(category).add(fields[1].trim());
+            names.get(category).add(fields[2].trim());
+        }
+
+        for (PartCategory category : PartCategory.values()) {
+            if (codes.get(category.ordinal()).isEmpty()) {
+                throw new IllegalStateException(source + " has no " + category.getKey() + " parts");
+            }
+            tables[category.ordinal()] = new PartTable(category, codes.get(category.ordinal()),
+                    names.get(category.ordinal()));
+        }
+    }
+
+    public PartTable table(PartCategory category) {
+        return tables[category.ordinal()];
+    }
+
+    // Number of distinct cars the catalog can describe
+    public long combinations() {
+        long combinations = 1;
+        for (PartTable table : tables) {
+            combinations *= table.size();
+        }
+        return combinations;
+    }
+}
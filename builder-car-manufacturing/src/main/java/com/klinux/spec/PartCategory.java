@@ -0,0 +1,29 @@
+package com.klinux.spec;
+
+// Columns of the part catalog; the key is the category name used in catalog/parts.csv
+public enum PartCategory {
+    MODEL("model"),
+    ENGINE("engine"),
+    WHEELS("wheels"),
+    DOORS("doors"),
+    INTERIOR("interior");
+
+    private final String key;
+
+    PartCategory(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static PartCategory fromKey(String key) {
+        for (PartCategory category : values()) {
+            if (category.key.equalsIgnoreCase(key)) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("Unknown part category: " + key);
+    }
+}
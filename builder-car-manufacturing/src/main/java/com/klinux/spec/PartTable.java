@@ -0,0 +1,71 @@
+package com.klinux.spec;
+
+import java.util.List;
+
+import com.klinux.util.CaseInsensitiveIndex;
+
+// The parts of one category, numbered 0..size-1 in catalog order. Names are interned, so every car
+// built from the catalog shares the same String instances. Both the code and the name of a part
+// resolve to its index through a CaseInsensitiveIndex; lookups allocate nothing.
+public class PartTable {
+
+    private final PartCategory category;
+    private final String[] codes;
+    private final String[] names;
+    private final CaseInsensitiveIndex index;
+
+    PartTable(PartCategory category, List<String> codes, List<String> names) {
+        if (codes.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many " + category.getKey() + " parts: " + codes.size());
+        }
+        this.category = category;
+        this.codes = new String[codes.size()];
+        this.names = new String[names.size()];
+        // A code and, when it differs, a name per part
+        this.index = new CaseInsensitiveIndex(codes.size() * 2);
+
+        for (int i = 0; i < codes.size(); i++) {
+            this.codes[i] = codes.get(i).intern();
+            this.names[i] = names.get(i).intern();
+            put(this.codes[i], i);
+            if (!this.names[i].equalsIgnoreCase(this.codes[i])) {
+                put(this.names[i], i);
+            }
+        }
+    }
+
+    private void put(String key, int part) {
+        if (!index.put(key, part)) {
+            throw new IllegalStateException("Duplicate " + category.getKey() + " part '" + key + "'");
+        }
+    }
+
+    public PartCategory getCategory() {
+        return category;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    // Index of the part with this code or name, or -1
+    public short indexOf(String codeOrName) {
+        return (short) index.get(codeOrName);
+    }
+
+    public short require(String codeOrName) {
+        short index = indexOf(codeOrName);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown " + category.getKey() + ": " + codeOrName);
+        }
+        return index;
+    }
+
+    public String codeOf(int index) {
+        return codes[index];
+    }
+
+    public String nameOf(int index) {
+        return names[index];
+    }
+}
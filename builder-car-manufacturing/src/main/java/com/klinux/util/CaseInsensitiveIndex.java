@@ -0,0 +1,54 @@
+package com.klinux.util;
+
+// Maps String keys, matched case-insensitively, to non-negative ints through an open-addressing table
+// with linear probing. Lookups hash the key as they read it, so no lower-cased copy is made and a lookup
+// allocates nothing. Filled once by its owner and then only read; not safe for concurrent put().
+public class CaseInsensitiveIndex {
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    // Sized so that expectedKeys keys fill at most half of the table
+    public CaseInsensitiveIndex(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedKeys * 2) - 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Returns false, leaving the index unchanged, when key (in any case) is already present
+    public boolean put(String key, int value) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equalsIgnoreCase(key)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return true;
+    }
+
+    // The value of key, or -1
+    public int get(String key) {
+        int slot = hash(key) & mask;
+        String candidate;
+        while ((candidate = keys[slot]) != null) {
+            if (candidate.equalsIgnoreCase(key)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int hash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(value.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
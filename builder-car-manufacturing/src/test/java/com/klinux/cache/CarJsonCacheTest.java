@@ -0,0 +1,61 @@
+package com.klinux.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+
+public class CarJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CarPresetRegistry registry = new CarPresetRegistry();
+    private final CarJsonCache cache = new CarJsonCache(registry, objectMapper);
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testPresetJsonIsSerializedOnce() throws Exception {
+        Car suv = registry.getPreset("suv");
+        CarJsonCache.Entry entry = cache.get(suv);
+
+        assertSame(entry, cache.get(suv));
+        assertArrayEquals(objectMapper.writeValueAsBytes(suv), entry.json());
+        assertArrayEquals(entry.json(), gunzip(entry.gzip()));
+        assertNotEquals(entry.etag(), entry.gzipEtag());
+    }
+
+    @Test
+    public void testRegistryChangeInvalidatesEntries() {
+        CarJsonCache.Entry before = cache.get(registry.getPreset("sedan"));
+        String truckTag = cache.get(registry.getPreset("truck")).etag();
+
+        registry.register("sedan", registry.getPreset("sedan").withEngine("2.0L Hybrid"));
+        CarJsonCache.Entry after = cache.get(registry.getPreset("sedan"));
+
+        assertNotEquals(before.etag(), after.etag());
+        assertSame(after, cache.get(registry.getPreset("sedan")));
+        // Unchanged presets keep their tags
+        assertEquals(truckTag, cache.get(registry.getPreset("truck")).etag());
+    }
+
+    @Test
+    public void testNonPresetCarIsSerializedOnDemand() throws Exception {
+        Car custom = registry.getPreset("truck").withWheels("22-inch Steel");
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(custom), cache.get(custom).json());
+    }
+}
@@ -0,0 +1,40 @@
+package com.klinux.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CarControllerTest {
+
+    @Test
+    public void testGzipWithZeroQualityIsRefused() {
+        assertTrue(CarController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CarController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(CarController.acceptsGzip("gzip;q=0"));
+        assertFalse(CarController.acceptsGzip("gzip; q=0"));
+        assertFalse(CarController.acceptsGzip("br, gzip;q=0.0"));
+        assertFalse(CarController.acceptsGzip("identity"));
+        assertFalse(CarController.acceptsGzip(null));
+    }
+
+    @Test
+    public void testWildcardAppliesOnlyWithoutAGzipEntry() {
+        assertTrue(CarController.acceptsGzip("*"));
+        assertFalse(CarController.acceptsGzip("*;q=0"));
+        assertFalse(CarController.acceptsGzip("gzip;q=0, *"));
+    }
+
+    @Test
+    public void testOnlyTheSentVariantsTagMatches() {
+        String plain = "\"abc\"";
+        String gzip = "\"abc-gzip\"";
+
+        assertTrue(CarController.matches("\"abc\"", plain));
+        assertFalse(CarController.matches("\"abc\"", gzip));
+        assertFalse(CarController.matches("\"abc-gzip\"", plain));
+        assertTrue(CarController.matches("\"old\", W/\"abc-gzip\"", gzip));
+        assertTrue(CarController.matches(" * ", gzip));
+        assertFalse(CarController.matches(null, plain));
+    }
+}
@@ -0,0 +1,90 @@
+package com.klinux.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCatalog;
+import com.klinux.spec.PartCategory;
+
+public class CarInventoryTest {
+
+    private final PartCatalog catalog;
+    private final CarSpecEngine engine;
+
+    public CarInventoryTest() throws IOException {
+        catalog = new PartCatalog(new ClassPathResource("catalog/parts.csv"));
+        engine = new CarSpecEngine(catalog, new CarPresetRegistry(), null, 1, 256, 1000, 0);
+    }
+
+    // 3000 cars cycling through the presets; every tenth SUV gets 20-inch wheels
+    private CarInventory inventory(boolean offHeap) {
+        CarInventory inventory = new CarInventory(catalog, offHeap, 16);
+        String[] presets = { "sedan", "suv", "truck" };
+        for (int i = 0; i < 3000; i++) {
+            String wheels = i % 30 == 1 ? "20-alloy" : null;
+            inventory.add(engine.resolve(new CarSpec(presets[i % 3], null, null, wheels, null, null)));
+        }
+        return inventory;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void countsMatchingCars(boolean offHeap) {
+        CarInventory inventory = inventory(offHeap);
+
+        assertEquals(3000, inventory.size());
+        assertEquals(3000, inventory.count(InventoryQuery.ALL));
+        assertEquals(1000, inventory.count(new InventoryQuery("suv", null, null, null, null)));
+        assertEquals(100, inventory.count(new InventoryQuery("SUV", "3.5L V6", "20-alloy", null, "premium-leather")));
+        assertEquals(2000, inventory.count(new InventoryQuery(null, null, null, "4 Doors", null)));
+        assertEquals(0, inventory.count(new InventoryQuery("sedan", "v8-5.0", null, null, null)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void returnsRowsAndBuildsCarsOnDemand(boolean offHeap) {
+        CarInventory inventory = inventory(offHeap);
+
+        int[] rows = inventory.rows(new InventoryQuery(null, null, "20-alloy", null, null), 5);
+        assertArrayEquals(new int[] { 1, 2, 5, 8, 11 }, rows);
+        assertEquals(new CarPresetRegistry().getPreset("suv").withWheels("20-inch Alloy"), inventory.car(1));
+        assertEquals("Truck", inventory.car(2).getModel());
+        assertThrows(IndexOutOfBoundsException.class, () -> inventory.car(3000));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void countsByPart(boolean offHeap) {
+        CarInventory inventory = inventory(offHeap);
+
+        Map<String, Integer> wheels = inventory.countBy(PartCategory.WHEELS, new InventoryQuery("suv", null, null, null, null));
+        assertEquals(Map.of("18-inch Alloy", 900, "20-inch Alloy", 100), wheels);
+        assertEquals(List.of("Sedan", "SUV", "Truck"),
+                new ArrayList<>(inventory.countBy(PartCategory.MODEL, InventoryQuery.ALL).keySet()));
+        assertTrue(offHeap == inventory.offHeapBytes() > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void rejectsUnknownParts(boolean offHeap) {
+        CarInventory inventory = new CarInventory(catalog, offHeap, 16);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> inventory.count(new InventoryQuery(null, "w12", null, null, null)));
+        assertEquals("Unknown engine: w12", e.getMessage());
+    }
+}
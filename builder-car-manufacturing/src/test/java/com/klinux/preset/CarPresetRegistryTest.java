@@ -0,0 +1,57 @@
+package com.klinux.preset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.model.Car;
+
+public class CarPresetRegistryTest {
+
+    private final CarPresetRegistry registry = new CarPresetRegistry();
+
+    @Test
+    public void testLookupReturnsSharedInstance() {
+        Car suv = registry.getPreset("suv");
+        assertSame(suv, registry.getPreset("SUV"));
+        assertSame(suv, registry.getPreset("Suv"));
+        assertEquals("3.5L V6", suv.getEngine());
+        assertEquals("Sedan", registry.getPreset("sedan").getModel());
+        assertEquals("Truck", registry.getPreset("TRUCK").getModel());
+    }
+
+    @Test
+    public void testUnknownModel() {
+        assertThrows(IllegalArgumentException.class, () -> registry.getPreset("coupe"));
+        assertThrows(IllegalArgumentException.class, () -> registry.getPreset(""));
+    }
+
+    @Test
+    public void testVariantsAreCopies() {
+        Car suv = registry.getPreset("suv");
+        Car variant = suv.withWheels("20-inch Alloy");
+
+        assertNotSame(suv, variant);
+        assertEquals("20-inch Alloy", variant.getWheels());
+        assertEquals("18-inch Alloy", registry.getPreset("suv").getWheels());
+    }
+
+    @Test
+    public void testRegisterReplacesPresetAndBumpsVersion() {
+        long version = registry.getVersion();
+        Car hybrid = registry.getPreset("sedan").withEngine("2.0L Hybrid");
+
+        registry.register("Sedan", hybrid);
+        registry.register("coupe", hybrid.withModel("Coupe").withDoors("2 Doors"));
+
+        assertSame(hybrid, registry.getPreset("sedan"));
+        assertEquals("Coupe", registry.getPreset("COUPE").getModel());
+        assertEquals(version + 2, registry.getVersion());
+        assertEquals(List.of("suv", "truck", "Sedan", "coupe"), List.copyOf(registry.getPresets().keySet()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.klinux.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.exception.InvalidCarModelException;
+import com.klinux.preset.CarPresetRegistry;
+
+public class CarServiceTest {
+
+    private final CarPresetRegistry registry = new CarPresetRegistry();
+    private final CarService service = new CarService(registry);
+
+    @Test
+    public void testBuildsSharedPreset() {
+        assertSame(registry.getPreset("suv"), service.buildCar("SUV"));
+    }
+
+    @Test
+    public void testUnknownModelIsABadRequest() {
+        assertThrows(InvalidCarModelException.class, () -> service.buildCar("spaceship"));
+    }
+}
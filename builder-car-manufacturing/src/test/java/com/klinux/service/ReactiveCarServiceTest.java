@@ -0,0 +1,94 @@
+package com.klinux.service;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.klinux.availability.StubPartAvailabilityClient;
+import com.klinux.exception.InvalidCarModelException;
+import com.klinux.exception.PartUnavailableException;
+import com.klinux.preset.CarPresetRegistry;
+import com.klinux.spec.BuildError;
+import com.klinux.spec.CarSpec;
+import com.klinux.spec.CarSpecEngine;
+import com.klinux.spec.PartCatalog;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ReactiveCarServiceTest {
+
+    private final CarPresetRegistry registry = new CarPresetRegistry();
+    private final CarSpecEngine engine;
+    private final ReactiveCarService service;
+
+    public ReactiveCarServiceTest() throws IOException {
+        engine = new CarSpecEngine(new PartCatalog(new ClassPathResource("catalog/parts.csv")), registry, null, 1, 256,
+                1000, 0);
+        // 18-inch wheels are only on the SUV preset
+        service = new ReactiveCarService(registry, engine, new StubPartAvailabilityClient(5, "18-inch Alloy"), 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void buildsPresetWhenEveryPartIsAvailable() {
+        StepVerifier.create(service.buildCar("sedan"))
+                .expectNext(registry.getPreset("sedan"))
+                .verifyComplete();
+    }
+
+    @Test
+    void failsWhenPartIsUnavailable() {
+        StepVerifier.create(service.buildCar("suv"))
+                .expectError(PartUnavailableException.class)
+                .verify();
+    }
+
+    @Test
+    void rejectsUnknownModelOrPart() {
+        StepVerifier.create(service.buildCar("spaceship"))
+                .expectError(InvalidCarModelException.class)
+                .verify();
+        StepVerifier.create(service.buildCar(new CarSpec("sedan", null, "w12", null, null, null)))
+                .expectError(InvalidCarModelException.class)
+                .verify();
+    }
+
+    @Test
+    void buildsSpecsInOrder() {
+        Flux<CarSpec> specs = Flux.just(
+                new CarSpec("truck", null, null, null, null, null),
+                new CarSpec("sedan", null, null, null, null, "fabric"),
+                new CarSpec("suv", null, null, "19-alloy", null, null));
+
+        StepVerifier.create(service.buildCars(specs))
+                .expectNext(registry.getPreset("truck"),
+                        registry.getPreset("sedan").withInterior("Fabric"),
+                        registry.getPreset("suv").withWheels("19-inch Alloy"))
+                .verifyComplete();
+    }
+
+    @Test
+    void failedSpecBecomesBuildErrorAndStreamGoesOn() {
+        Flux<CarSpec> specs = Flux.just(
+                new CarSpec("truck", null, null, null, null, null),
+                new CarSpec("spaceship", null, null, null, null, null),
+                new CarSpec("suv", null, null, null, null, null),
+                new CarSpec("sedan", null, null, null, null, null));
+
+        StepVerifier.create(service.buildCars(specs))
+                .expectNext(registry.getPreset("truck"))
+                .expectNextMatches(error -> error instanceof BuildError buildError && buildError.index() == 1)
+                // The SUV preset's 18-inch wheels are out of stock
+                .expectNextMatches(error -> error instanceof BuildError buildError && buildError.index() == 2
+                        && buildError.error().startsWith("Part unavailable"))
+                .expectNext(registry.getPreset("sedan"))
+                .verifyComplete();
+    }
+}
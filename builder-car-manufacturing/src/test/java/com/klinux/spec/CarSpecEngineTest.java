@@ -0,0 +1,97 @@
+package com.klinux.spec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klinux.model.Car;
+import com.klinux.preset.CarPresetRegistry;
+
+public class CarSpecEngineTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CarPresetRegistry registry = new CarPresetRegistry();
+    private final CarSpecEngine engine;
+
+    public CarSpecEngineTest() throws IOException {
+        engine = new CarSpecEngine(new PartCatalog(new ClassPathResource("catalog/parts.csv")), registry,
+                objectMapper, 4, 3, 1000, 65536);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void buildsFromCodesAndNamesWithInternedParts() {
+        Car byCode = engine.build(new CarSpec(null, "coupe", "v8-5.0", "19-alloy", "2", "vegan-leather"));
+        Car byName = engine.build(new CarSpec(null, "COUPE", "5.0L V8", "19-inch alloy", "2 Doors", "Vegan Leather"));
+
+        assertEquals(byCode, byName);
+        assertEquals("Coupe", byCode.getModel());
+        assertEquals("19-inch Alloy", byCode.getWheels());
+        assertSame(byCode.getEngine(), byName.getEngine());
+    }
+
+    @Test
+    void takesMissingPartsFromPreset() {
+        Car car = engine.build(new CarSpec("suv", null, null, "20-alloy", null, null));
+
+        assertEquals(registry.getPreset("suv").withWheels("20-inch Alloy"), car);
+    }
+
+    @Test
+    void rejectsUnknownOrMissingParts() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> engine.build(new CarSpec("sedan", null, "w12", null, null, null)));
+        assertEquals("Unknown engine: w12", unknown.getMessage());
+
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> engine.build(new CarSpec(null, "van", "v6-3.5", "16-steel", "5", null)));
+        assertEquals("Missing interior", missing.getMessage());
+    }
+
+    @Test
+    void streamsOneLinePerSpecInRequestOrder() throws Exception {
+        List<CarSpec> specs = new ArrayList<>();
+        String[] presets = { "sedan", "suv", "truck" };
+        for (int i = 0; i < 50; i++) {
+            specs.add(new CarSpec(presets[i % 3], null, null, null, null, null));
+        }
+        specs.set(17, new CarSpec("sedan", null, null, "spoked", null, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.writeNdjson(specs, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(50, lines.length);
+        for (int i = 0; i < 50; i++) {
+            String expected = i == 17
+                    ? objectMapper.writeValueAsString(new BuildError(17, "Unknown wheels: spoked"))
+                    : objectMapper.writeValueAsString(registry.getPreset(presets[i % 3]));
+            assertEquals(expected, lines[i]);
+        }
+    }
+
+    @Test
+    void rejectsTooManySpecs() {
+        List<CarSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            specs.add(new CarSpec("sedan", null, null, null, null, null));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> engine.writeNdjson(specs, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.klinux.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CaseInsensitiveIndexTest {
+
+    @Test
+    public void testLookupIgnoresCase() {
+        CaseInsensitiveIndex index = new CaseInsensitiveIndex(2);
+        assertTrue(index.put("Sedan", 0));
+        assertTrue(index.put("suv", 1));
+
+        assertEquals(0, index.get("SEDAN"));
+        assertEquals(1, index.get("Suv"));
+        assertEquals(-1, index.get("truck"));
+        assertEquals(-1, index.get(""));
+    }
+
+    @Test
+    public void testDuplicateInAnotherCaseIsRefused() {
+        CaseInsensitiveIndex index = new CaseInsensitiveIndex(1);
+        assertTrue(index.put("suv", 1));
+        assertFalse(index.put("SUV", 2));
+        assertEquals(1, index.get("suv"));
+    }
+
+    @Test
+    public void testManyKeysProbePastCollisions() {
+        CaseInsensitiveIndex index = new CaseInsensitiveIndex(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(index.put("part-" + i, i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, index.get("PART-" + i));
+        }
+    }
+}
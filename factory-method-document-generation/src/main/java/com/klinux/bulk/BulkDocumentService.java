@@ -0,0 +1,216 @@
+package com.klinux.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.klinux.document.Document;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.service.DocumentGenerationService;
+
+import jakarta.annotation.PreDestroy;
+
+// Renders many documents in parallel and writes them into one ZIP in completion order.
+// Each document type has its own fixed render pool (documents.bulk.threads.<type>, default one thread
+// per core), so a job full of slow PDFs does not hold up Excel renders. A job keeps at most
+// documents.bulk.window documents in flight: the next one is submitted only when a finished one has
+// been written, so a slow client slows rendering down instead of filling the heap.
+// Bulk renders bypass the DocumentCache: statements are unique and would only evict useful entries.
+// A background sweep forgets finished jobs after documents.bulk.retention-minutes, and cancels jobs whose
+// ZIP was never written (the client went away before the response started) after
+// documents.bulk.start-timeout-seconds.
+@Service
+public class BulkDocumentService {
+
+    private final DocumentGenerationService documentGenerationService;
+    private final DocumentMetrics documentMetrics;
+    private final Environment environment;
+    private final int window;
+    private final Duration retention;
+    private final Duration startTimeout;
+    private final Clock clock;
+    private final Map<String, ExecutorService> pools = new ConcurrentHashMap<>();
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService cleaner;
+
+    private record Rendered(int index, String entryName, byte[] bytes, String error) {
+    }
+
+    @Autowired
+    public BulkDocumentService(DocumentGenerationService documentGenerationService, DocumentMetrics documentMetrics,
+            Environment environment,
+            @Value("${documents.bulk.window:64}") int window,
+            @Value("${documents.bulk.retention-minutes:60}") long retentionMinutes,
+            @Value("${documents.bulk.start-timeout-seconds:60}") long startTimeoutSeconds,
+            @Value("${documents.bulk.cleanup-interval-seconds:60}") long cleanupIntervalSeconds) {
+        this(documentGenerationService, documentMetrics, environment, window, Duration.ofMinutes(retentionMinutes),
+                Duration.ofSeconds(startTimeoutSeconds), Clock.systemUTC());
+        cleaner.scheduleWithFixedDelay(this::evictExpired, cleanupIntervalSeconds, cleanupIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    BulkDocumentService(DocumentGenerationService documentGenerationService, DocumentMetrics documentMetrics,
+            Environment environment, int window, Duration retention, Duration startTimeout, Clock clock) {
+        this.documentGenerationService = documentGenerationService;
+        this.documentMetrics = documentMetrics;
+        this.environment = environment;
+        this.window = Math.max(1, window);
+        this.retention = retention;
+        this.startTimeout = startTimeout;
+        this.clock = clock;
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkJob start(List<BulkItem> items) {
+        BulkJob job = new BulkJob(Long.toString(clock.millis(), 36) + "-" + sequence.incrementAndGet(), items,
+                clock.instant());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<BulkJobStatus> status(String id) {
+        BulkJob job = jobs.get(id);
+        return job == null ? Optional.empty() : Optional.of(job.status());
+    }
+
+    // Renders every item of the job and writes each document as a ZIP entry as soon as it is done.
+    // Failed items are listed in errors.txt at the end of the archive.
+    public void writeZip(BulkJob job, OutputStream out) throws IOException {
+        if (!job.take()) {
+            throw new IllegalStateException("Bulk job " + job.getId() + " was already written or has expired");
+        }
+        List<BulkItem> items = job.items();
+        BlockingQueue<Rendered> done = new LinkedBlockingQueue<>();
+        StringBuilder errors = new StringBuilder();
+        int next = 0;
+        int inFlight = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PDF, XLSX and DOCX are already compressed
+            zip.setLevel(Deflater.BEST_SPEED);
+            while (next < items.size() && inFlight < window) {
+                submit(items.get(next), next++, done);
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                Rendered rendered = done.take();
+                inFlight--;
+                if (rendered.error() == null) {
+                    zip.putNextEntry(new ZipEntry(rendered.entryName()));
+                    zip.write(rendered.bytes());
+                    zip.closeEntry();
+                    job.recordCompleted();
+                } else {
+                    errors.append(rendered.index()).append(": ").append(rendered.error()).append('\n');
+                    job.recordFailed();
+                }
+                if (next < items.size()) {
+                    submit(items.get(next), next++, done);
+                    inFlight++;
+                }
+            }
+            if (errors.length() > 0) {
+                zip.putNextEntry(new ZipEntry("errors.txt"));
+                zip.write(errors.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            job.finish(BulkJob.State.COMPLETED, clock.instant());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(BulkJob.State.CANCELLED, clock.instant());
+            throw new IOException("Bulk job " + job.getId() + " interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            // Usually the client went away; documents still in flight finish but nothing new is submitted
+            job.finish(BulkJob.State.CANCELLED, clock.instant());
+            throw e;
+        }
+    }
+
+    private void submit(BulkItem item, int index, BlockingQueue<Rendered> done) {
+        Document document;
+        try {
+            document = documentGenerationService.createDocument(item.type(), item.content());
+        } catch (RuntimeException e) {
+            done.add(new Rendered(index, null, null, e.getMessage()));
+            return;
+        }
+        String entryName = String.format("%06d-%s", index, document.getFileName());
+        long submitted = System.nanoTime();
+        poolFor(item.type()).execute(() -> {
+            documentMetrics.recordQueueWait(item.type(), "bulk", System.nanoTime() - submitted);
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                document.write(item.content(), bytes);
+                done.add(new Rendered(index, entryName, bytes.toByteArray(), null));
+            } catch (Exception e) {
+                done.add(new Rendered(index, entryName, null, e.toString()));
+            }
+        });
+    }
+
+    private ExecutorService poolFor(String type) {
+        String key = type.toLowerCase(Locale.ROOT);
+        ExecutorService pool = pools.get(key);
+        return pool != null ? pool : pools.computeIfAbsent(key, this::newPool);
+    }
+
+    private ExecutorService newPool(String type) {
+        int threads = environment.getProperty("documents.bulk.threads." + type, Integer.class,
+                Runtime.getRuntime().availableProcessors());
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-render-" + type + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Cancels jobs nobody started writing within the start timeout and forgets jobs finished before the
+    // retention period
+    void evictExpired() {
+        Instant now = clock.instant();
+        Instant unstartedCutoff = now.minus(startTimeout);
+        Instant finishedCutoff = now.minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.isUntakenSince(unstartedCutoff) && job.take()) {
+                job.finish(BulkJob.State.CANCELLED, now);
+            }
+            return job.isFinishedBefore(finishedCutoff);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        pools.values().forEach(ExecutorService::shutdownNow);
+    }
+}
@@ -0,0 +1,5 @@
+package com.klinux.bulk;
+
+// One document of a bulk job, as in POST /documents/generate
+public record BulkItem(String type, String content) {
+}
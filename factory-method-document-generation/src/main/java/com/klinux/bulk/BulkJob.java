@@ -0,0 +1,73 @@
+package com.klinux.bulk;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Progress of one bulk request; updated by the thread writing the ZIP, read by the status endpoint.
+// The items are only held until the job finishes; the status keeps their count.
+public class BulkJob {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED
+    }
+
+    private final String id;
+    private final int total;
+    private final Instant startedAt;
+    private final AtomicBoolean taken = new AtomicBoolean();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile List<BulkItem> items;
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+
+    BulkJob(String id, List<BulkItem> items, Instant startedAt) {
+        this.id = id;
+        this.total = items.size();
+        this.items = items;
+        this.startedAt = startedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    List<BulkItem> items() {
+        return items;
+    }
+
+    // Only one caller gets true: the writer that renders the job, or the sweep cancelling it when the
+    // response was never written
+    boolean take() {
+        return taken.compareAndSet(false, true);
+    }
+
+    boolean isUntakenSince(Instant instant) {
+        return !taken.get() && startedAt.isBefore(instant);
+    }
+
+    void recordCompleted() {
+        completed.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failed.incrementAndGet();
+    }
+
+    void finish(State finalState, Instant now) {
+        items = null;
+        finishedAt = now;
+        state = finalState;
+    }
+
+    boolean isFinishedBefore(Instant instant) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(instant);
+    }
+
+    public BulkJobStatus status() {
+        return new BulkJobStatus(id, state, total, completed.get(), failed.get(), startedAt, finishedAt);
+    }
+}
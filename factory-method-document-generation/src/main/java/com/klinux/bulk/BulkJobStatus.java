@@ -0,0 +1,7 @@
+package com.klinux.bulk;
+
+import java.time.Instant;
+
+public record BulkJobStatus(String id, BulkJob.State state, int total, int completed, int failed,
+        Instant startedAt, Instant finishedAt) {
+}
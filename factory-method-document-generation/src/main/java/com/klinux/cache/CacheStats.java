@@ -0,0 +1,6 @@
+package com.klinux.cache;
+
+// coalesced: requests that waited for an identical render already in progress instead of rendering again
+public record CacheStats(long memoryHits, long diskHits, long misses, long coalesced, int memoryEntries,
+        long memoryBytes, int diskEntries, long diskBytes) {
+}
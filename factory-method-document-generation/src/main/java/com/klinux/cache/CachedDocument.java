@@ -0,0 +1,78 @@
+package com.klinux.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+// A rendered document handed out by DocumentCache: either bytes from the memory tier or an open
+// channel on a disk-tier file. The channel is opened when the entry is looked up, so the file may be
+// evicted (deleted) meanwhile without affecting this reader. Close it if transferTo is never called.
+public class CachedDocument implements Closeable {
+
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final byte[] bytes;
+    private FileChannel channel;
+
+    public CachedDocument(String fileName, String contentType, byte[] bytes) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = bytes.length;
+        this.bytes = bytes;
+    }
+
+    CachedDocument(String fileName, String contentType, long size, FileChannel channel) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.bytes = null;
+        this.channel = channel;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isInMemory() {
+        return bytes != null;
+    }
+
+    // Writes the document to out and releases the file, if any. This is not a zero-copy path: a servlet
+    // OutputStream is not a channel the kernel can write to, so FileChannel.transferTo falls back to
+    // reading the file into a user-space buffer and writing that. A disk hit saves the render, not the copy.
+    public void transferTo(OutputStream out) throws IOException {
+        if (bytes != null) {
+            out.write(bytes);
+            return;
+        }
+        try {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.klinux.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.store.DocumentWriter;
+
+import jakarta.annotation.PreDestroy;
+
+// Rendered documents keyed by the SHA-256 of (type, content).
+// - Memory tier: size-aware LRU bounded by documents.cache.memory-max-bytes. Evicted entries spill to disk.
+// - Disk tier: one file per key in a private directory created under documents.cache.dir for this instance
+//   and removed on shutdown, LRU bounded by documents.cache.disk-max-bytes. Hits are read from the file.
+// - Concurrent misses on the same key are single-flighted: one thread renders, the others wait for its bytes.
+// Documents larger than documents.cache.max-entry-bytes skip the memory tier.
+// A miss is rendered into a byte array before it is admitted, so a cached render is held whole in memory
+// once, however large; DocumentGenerationService keeps streaming-input types out of the cache for that reason.
+@Component
+public class DocumentCache {
+
+    private record Entry(String fileName, String contentType, byte[] bytes) {
+    }
+
+    private record DiskEntry(String fileName, String contentType, long size, Path path) {
+    }
+
+    private final Path directory;
+    private final long memoryMaxBytes;
+    private final long maxEntryBytes;
+    private final long diskMaxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by their own monitors
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, DiskEntry> disk = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final ConcurrentMap<String, CompletableFuture<Entry>> rendering = new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Autowired
+    public DocumentCache(@Value("${documents.cache.dir:${java.io.tmpdir}/document-cache}") String directory,
+            @Value("${documents.cache.memory-max-bytes:67108864}") long memoryMaxBytes,
+            @Value("${documents.cache.max-entry-bytes:4194304}") long maxEntryBytes,
+            @Value("${documents.cache.disk-max-bytes:1073741824}") long diskMaxBytes) throws IOException {
+        this(Paths.get(directory), memoryMaxBytes, maxEntryBytes, diskMaxBytes);
+    }
+
+    DocumentCache(Path parent, long memoryMaxBytes, long maxEntryBytes, long diskMaxBytes) throws IOException {
+        // The disk index lives in memory only, so each instance starts from an empty directory of its own
+        // and never touches other files under the (possibly shared) parent
+        this.directory = Files.createTempDirectory(Files.createDirectories(parent), "cache-");
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, memoryMaxBytes);
+        this.diskMaxBytes = diskMaxBytes;
+    }
+
+    public static String key(String type, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(type.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // The cached document for key, or the result of writer, which then becomes the cached entry
+    public CachedDocument getOrRender(String key, String fileName, String contentType, DocumentWriter writer)
+            throws Exception {
+        CachedDocument cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = rendering.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            Entry entry = await(running);
+            if (entry == null) {
+                // That thread found the entry already cached
+                return getOrRender(key, fileName, contentType, writer);
+            }
+            return new CachedDocument(entry.fileName(), entry.contentType(), entry.bytes());
+        }
+
+        try {
+            // Another render may have finished between the lookup and putIfAbsent
+            cached = lookup(key);
+            if (cached != null) {
+                mine.complete(null);
+                return cached;
+            }
+            misses.increment();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            writer.writeTo(buffer);
+            Entry entry = new Entry(fileName, contentType, buffer.toByteArray());
+            admit(key, entry);
+            mine.complete(entry);
+            return new CachedDocument(fileName, contentType, entry.bytes());
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        List<Path> removed = new ArrayList<>();
+        synchronized (disk) {
+            for (DiskEntry entry : disk.values()) {
+                removed.add(entry.path());
+            }
+            disk.clear();
+            diskBytes = 0;
+        }
+        removed.forEach(DocumentCache::deleteQuietly);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        invalidateAll();
+        deleteQuietly(directory);
+    }
+
+    public CacheStats stats() {
+        int memoryEntries;
+        long memoryUsed;
+        synchronized (memory) {
+            memoryEntries = memory.size();
+            memoryUsed = memoryBytes;
+        }
+        int diskEntries;
+        long diskUsed;
+        synchronized (disk) {
+            diskEntries = disk.size();
+            diskUsed = diskBytes;
+        }
+        return new CacheStats(memoryHits.sum(), diskHits.sum(), misses.sum(), coalesced.sum(), memoryEntries,
+                memoryUsed, diskEntries, diskUsed);
+    }
+
+    private CachedDocument lookup(String key) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                memoryHits.increment();
+                return new CachedDocument(entry.fileName(), entry.contentType(), entry.bytes());
+            }
+        }
+        synchronized (disk) {
+            DiskEntry entry = disk.get(key);
+            if (entry != null) {
+                try {
+                    FileChannel channel = FileChannel.open(entry.path(), StandardOpenOption.READ);
+                    diskHits.increment();
+                    return new CachedDocument(entry.fileName(), entry.contentType(), entry.size(), channel);
+                } catch (IOException e) {
+                    // File removed behind our back; forget it and render again
+                    disk.remove(key);
+                    diskBytes -= entry.size();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void admit(String key, Entry entry) {
+        if (entry.bytes().length > maxEntryBytes) {
+            spill(key, entry);
+            return;
+        }
+        Map<String, Entry> evicted = new LinkedHashMap<>();
+        synchronized (memory) {
+            Entry previous = memory.put(key, entry);
+            memoryBytes += entry.bytes().length - (previous == null ? 0 : previous.bytes().length);
+            Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> next = eldest.next();
+                memoryBytes -= next.getValue().bytes().length;
+                evicted.put(next.getKey(), next.getValue());
+                eldest.remove();
+            }
+        }
+        // File writes happen outside the memory-tier lock
+        evicted.forEach(this::spill);
+    }
+
+    private void spill(String key, Entry entry) {
+        long size = entry.bytes().length;
+        if (size > diskMaxBytes) {
+            return;
+        }
+        synchronized (disk) {
+            if (disk.containsKey(key)) {
+                return;
+            }
+        }
+        // Written under a temporary name and moved into place, so a reader never sees a partial file
+        Path path = directory.resolve(key);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temporary, entry.bytes());
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Disk tier unavailable; the entry is simply not cached
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+            return;
+        }
+
+        List<Path> removed = new ArrayList<>();
+        synchronized (disk) {
+            DiskEntry previous = disk.put(key, new DiskEntry(entry.fileName(), entry.contentType(), size, path));
+            diskBytes += size - (previous == null ? 0 : previous.size());
+            Iterator<DiskEntry> eldest = disk.values().iterator();
+            while (diskBytes > diskMaxBytes && eldest.hasNext()) {
+                DiskEntry next = eldest.next();
+                diskBytes -= next.size();
+                removed.add(next.path());
+                eldest.remove();
+            }
+        }
+        // Readers that already opened an evicted file keep reading it; the name is gone for everyone else
+        removed.forEach(DocumentCache::deleteQuietly);
+    }
+
+    private static Entry await(CompletableFuture<Entry> running) throws Exception {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Still open by a reader on Windows, or already gone; at worst the file outlives the process
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.klinux.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.klinux.bulk.BulkDocumentService;
+import com.klinux.bulk.BulkItem;
+import com.klinux.bulk.BulkJob;
+import com.klinux.bulk.BulkJobStatus;
+
+@RestController
+@RequestMapping("/documents/bulk")
+public class BulkDocumentController {
+
+    private final BulkDocumentService bulkDocumentService;
+
+    public BulkDocumentController(BulkDocumentService bulkDocumentService) {
+        this.bulkDocumentService = bulkDocumentService;
+    }
+
+    // Body: [{"type": "pdf", "content": "..."}, ...]. The response is a ZIP written while the documents
+    // are rendered; follow progress with GET /documents/bulk/{id} using the X-Job-Id header.
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateDocuments(@RequestBody List<BulkItem> items) {
+        if (items == null || items.isEmpty()) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        BulkJob job = bulkDocumentService.start(items);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=documents-" + job.getId() + ".zip");
+        headers.add("X-Job-Id", job.getId());
+        headers.add(HttpHeaders.LOCATION, "/documents/bulk/" + job.getId());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(out -> bulkDocumentService.writeZip(job, out));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BulkJobStatus> jobStatus(@PathVariable String id) {
+        return bulkDocumentService.status(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
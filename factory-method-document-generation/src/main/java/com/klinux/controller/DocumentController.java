@@ -1,47 +1,172 @@
 package com.klinux.controller;
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.klinux.cache.CacheStats;
+import com.klinux.cache.CachedDocument;
+import com.klinux.cache.DocumentCache;
+import com.klinux.document.Document;
+import com.klinux.exception.ContentTooLargeException;
+import com.klinux.exception.UnknownDocumentTypeException;
+import com.klinux.factory.DocumentCapabilities;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.metrics.FormatStats;
 import com.klinux.service.DocumentGenerationService;
+import com.klinux.store.DocumentStore;
+import com.klinux.store.StoredDocument;
+import com.klinux.store.StoredFile;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/documents")
 public class DocumentController {
 
     private final DocumentGenerationService documentGenerationService;
+    private final DocumentStore documentStore;
+    private final DocumentCache documentCache;
+    private final DocumentMetrics documentMetrics;
 
-    public DocumentController(DocumentGenerationService documentGenerationService) {
+    public DocumentController(DocumentGenerationService documentGenerationService, DocumentStore documentStore,
+            DocumentCache documentCache, DocumentMetrics documentMetrics) {
         this.documentGenerationService = documentGenerationService;
+        this.documentStore = documentStore;
+        this.documentCache = documentCache;
+        this.documentMetrics = documentMetrics;
     }
 
+    // Identical (type, content) pairs are rendered once and then served from the DocumentCache.
+    // Streaming-input types, and every type with documents.cache.enabled=false, are rendered straight
+    // into the response stream (chunked, no Content-Length). Either way nothing is written to a shared
+    // file, so concurrent requests cannot overwrite each other's output.
+    // An unknown type answers 400 and oversized content 413 (see the com.klinux.exception types).
     @PostMapping("/generate")
-    public ResponseEntity<FileSystemResource> generateDocument(@RequestParam String type, @RequestParam String content) {
+    public ResponseEntity<StreamingResponseBody> generateDocument(@RequestParam String type, @RequestParam String content) {
+        if (documentGenerationService.isCached(type)) {
+            return cachedDocument(type, content);
+        }
+        Document document = documentGenerationService.createDocument(type, content);
+
+        StreamingResponseBody body = out -> {
+            try {
+                document.write(content, out);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to generate " + type + " document", e);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=" + document.getFileName());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(document.getContentType()))
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> cachedDocument(String type, String content) {
+        CachedDocument document;
+        try {
+            document = documentGenerationService.renderDocument(type, content);
+        } catch (UnknownDocumentTypeException | ContentTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=" + document.getFileName());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(document.getContentType()))
+                .contentLength(document.getSize())
+                .body(document::transferTo);
+    }
+
+    // Registered document types with their capabilities (streaming input, max content length)
+    @GetMapping("/types")
+    public Map<String, DocumentCapabilities> documentTypes() {
+        return documentGenerationService.getDocumentTypes();
+    }
+
+    // Per-type render latency, bytes out, allocation and queue wait (see DocumentMetrics)
+    @GetMapping("/metrics")
+    public List<FormatStats> documentMetrics() {
+        return documentMetrics.snapshot();
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheStats cacheStats() {
+        return documentCache.stats();
+    }
+
+    // Large exports: CSV or a JSON array of rows in the request body is converted while it is read,
+    // so heap use does not grow with the row count (see ExcelDocument)
+    @PostMapping(value = "/export", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE })
+    public void exportDocument(@RequestParam(defaultValue = "excel") String type, InputStream body,
+            HttpServletResponse response) throws Exception {
+        Document document;
         try {
-            // Delegate document generation to the service
-            String fileName = documentGenerationService.generateDocument(type, content);
-            
-            // Get the file created by the factory
-            File generatedFile = new File(fileName);
-            FileSystemResource fileResource = new FileSystemResource(generatedFile);
-
-            // Return the file as a response to the client
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Content-Disposition", "attachment; filename=" + generatedFile.getName());
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(fileResource);
+            document = documentGenerationService.createStreamingDocument(type);
+        } catch (IllegalArgumentException e) {
+            // Unknown type, or one that would buffer the whole body
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        response.setContentType(document.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=" + document.getFileName());
+        document.write(new InputStreamReader(body, StandardCharsets.UTF_8), response.getOutputStream());
+    }
+
+    // Renders the document into the DocumentStore; download it later with GET /documents/{id}
+    @PostMapping
+    public ResponseEntity<StoredDocument> storeDocument(@RequestParam String type, @RequestParam String content) {
+        try {
+            StoredDocument document = documentGenerationService.generateDocument(type, content);
+            return new ResponseEntity<>(document, HttpStatus.CREATED);
+        } catch (UnknownDocumentTypeException | ContentTooLargeException e) {
+            throw e;
         } catch (Exception e) {
-            // Return error message if document generation fails
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}")
+    public ResponseEntity<FileSystemResource> downloadDocument(@PathVariable String id) {
+        Optional<StoredFile> stored = documentStore.findFile(id);
+        if (stored.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredDocument document = stored.get().document();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=" + document.fileName());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(document.contentType()))
+                .contentLength(document.size())
+                .body(new FileSystemResource(stored.get().path()));
+    }
+}
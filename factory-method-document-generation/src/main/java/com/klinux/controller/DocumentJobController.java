@@ -0,0 +1,82 @@
+package com.klinux.controller;
+
+import java.net.URI;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.klinux.job.DocumentJob;
+import com.klinux.job.DocumentJobScheduler;
+import com.klinux.job.DocumentJobStatus;
+import com.klinux.job.JobPriority;
+import com.klinux.store.DocumentStore;
+import com.klinux.store.StoredDocument;
+import com.klinux.store.StoredFile;
+
+// Asynchronous renders: submit a job, poll GET /documents/jobs/{id}, then download the result.
+// An unknown type or priority answers 400, oversized content 413 and a full queue 429 (see the
+// com.klinux.exception types).
+@RestController
+@RequestMapping("/documents/jobs")
+public class DocumentJobController {
+
+    private final DocumentJobScheduler documentJobScheduler;
+    private final DocumentStore documentStore;
+
+    public DocumentJobController(DocumentJobScheduler documentJobScheduler, DocumentStore documentStore) {
+        this.documentJobScheduler = documentJobScheduler;
+        this.documentStore = documentStore;
+    }
+
+    @PostMapping
+    public ResponseEntity<DocumentJobStatus> submitJob(@RequestParam String type, @RequestParam String content,
+            @RequestParam(defaultValue = "interactive") String priority) {
+        DocumentJob job = documentJobScheduler.submit(type, content, JobPriority.fromName(priority));
+        return ResponseEntity.accepted()
+                .location(URI.create("/documents/jobs/" + job.getId()))
+                .body(job.status());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DocumentJobStatus> jobStatus(@PathVariable String id) {
+        return documentJobScheduler.find(id)
+                .map(job -> ResponseEntity.ok(job.status()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 409 until the job has completed; 404 once the document has expired from the store
+    @GetMapping("/{id}/download")
+    public ResponseEntity<FileSystemResource> downloadJob(@PathVariable String id) {
+        Optional<DocumentJob> job = documentJobScheduler.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredDocument document = job.get().getDocument();
+        if (document == null) {
+            return new ResponseEntity<>(null, HttpStatus.CONFLICT);
+        }
+        Optional<StoredFile> stored = documentStore.findFile(document.id());
+        if (stored.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=" + document.fileName());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(document.contentType()))
+                .contentLength(document.size())
+                .body(new FileSystemResource(stored.get().path()));
+    }
+}
@@ -1,5 +1,26 @@
 package com.klinux.document;
 
+import java.io.OutputStream;
+import java.io.Reader;
+
 public interface Document {
-	String generate(String content) throws Exception;
+
+	// Writes the rendered document to out without touching disk; the caller owns (and closes) the stream
+	void write(String content, OutputStream out) throws Exception;
+
+	// Same, reading the content incrementally; formats that cannot stream their input read it all first
+	default void write(Reader content, OutputStream out) throws Exception {
+		StringBuilder text = new StringBuilder();
+		char[] buffer = new char[8192];
+		int read;
+		while ((read = content.read(buffer)) != -1) {
+			text.append(buffer, 0, read);
+		}
+		write(text.toString(), out);
+	}
+
+	// Name offered to the client in Content-Disposition
+	String getFileName();
+
+	String getContentType();
 }
@@ -1,13 +1,117 @@
 package com.klinux.document;
 
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.klinux.document.rows.RowReader;
+
+// Rows from CSV or a JSON array, written with POI's streaming SXSSF workbook: only the last
+// ROW_WINDOW rows are kept in memory, older rows are flushed to a compressed temp file, so the heap
+// used does not grow with the number of rows
 public class ExcelDocument implements Document {
-	 @Override
-	    public String generate(String content) throws Exception {
-	        // File name for Excel
-	        String fileName = "document.xlsx";
-	        
-	        // Logic for generating the Excel file...
-
-	        return fileName;
-	    }
+
+	static final int ROW_WINDOW = 100;
+
+	// Rows per sheet in .xlsx; the export continues on a new sheet after that
+	static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+	// Longest numeric-looking text stored as a number; longer values (ids, card numbers) stay text
+	private static final int MAX_NUMBER_LENGTH = 15;
+
+	@Override
+	public void write(String content, OutputStream out) throws Exception {
+		write(new StringReader(content), out);
+	}
+
+	@Override
+	public void write(Reader content, OutputStream out) throws Exception {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+		workbook.setCompressTempFiles(true);
+		try (RowReader rows = RowReader.open(content)) {
+			int sheetCount = 1;
+			Sheet sheet = workbook.createSheet("Sheet1");
+			int rowIndex = 0;
+			List<Object> values;
+			while ((values = rows.next()) != null) {
+				if (rowIndex == MAX_ROWS_PER_SHEET) {
+					sheet = workbook.createSheet("Sheet" + (++sheetCount));
+					rowIndex = 0;
+				}
+				Row row = sheet.createRow(rowIndex++);
+				for (int column = 0; column < values.size(); column++) {
+					setValue(row.createCell(column), values.get(column));
+				}
+			}
+			workbook.write(out);
+		} finally {
+			// Removes the temp files backing the flushed rows
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	private static void setValue(Cell cell, Object value) {
+		if (value instanceof Long) {
+			// Same rule as numeric text: long ids stay text rather than lose digits as a double
+			setValue(cell, value.toString());
+		} else if (value instanceof Number number) {
+			cell.setCellValue(number.doubleValue());
+		} else if (value instanceof Boolean bool) {
+			cell.setCellValue(bool);
+		} else if (value != null) {
+			String text = value.toString();
+			if (isNumber(text)) {
+				cell.setCellValue(Double.parseDouble(text));
+			} else {
+				cell.setCellValue(text);
+			}
+		}
+	}
+
+	// -?(0|[1-9][0-9]*)(.[0-9]+)? without a regex; leading zeros ("0042") keep the value as text
+	static boolean isNumber(String text) {
+		int length = text.length();
+		if (length == 0 || length > MAX_NUMBER_LENGTH) {
+			return false;
+		}
+		int i = text.charAt(0) == '-' ? 1 : 0;
+		int digitsStart = i;
+		while (i < length && Character.isDigit(text.charAt(i))) {
+			i++;
+		}
+		int integerDigits = i - digitsStart;
+		if (integerDigits == 0 || (integerDigits > 1 && text.charAt(digitsStart) == '0')) {
+			return false;
+		}
+		if (i == length) {
+			return true;
+		}
+		if (text.charAt(i) != '.' || i == length - 1) {
+			return false;
+		}
+		for (i++; i < length; i++) {
+			if (!Character.isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String getFileName() {
+		// File name for Excel
+		return "document.xlsx";
+	}
+
+	@Override
+	public String getContentType() {
+		return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+	}
 }
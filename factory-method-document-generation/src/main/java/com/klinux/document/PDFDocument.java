@@ -1,37 +1,59 @@
 package com.klinux.document;
 
-import java.io.FileOutputStream;
+import java.io.OutputStream;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.Paragraph;
+import com.klinux.document.pdf.PdfResources;
 
+// PDF built with iText. Fonts, images and styles come from the shared PdfResources, so a render only
+// creates the per-document writer, document and font wrapper.
 public class PDFDocument implements com.klinux.document.Document {
 
+	private final PdfResources resources;
+
+	public PDFDocument() {
+		this(PdfResources.standard());
+	}
+
+	public PDFDocument(PdfResources resources) {
+		this.resources = resources;
+	}
+
+	@Override
+	public void write(String content, OutputStream out) throws Exception {
+		// Initialize PdfWriter on the caller's stream; closing the PDF must not close it
+		PdfWriter writer = new PdfWriter(out);
+		writer.setCloseStream(false);
+
+		// Initialize PdfDocument with PdfWriter
+		PdfDocument pdfDoc = new PdfDocument(writer);
+
+		// Initialize the layout document (which handles content layout)
+		Document document = new Document(pdfDoc);
+		document.setFont(resources.bodyFont());
+
+		if (resources.logo() != null) {
+			document.add(new Image(resources.logo()).addStyle(resources.logoStyle()));
+		}
+
+		// Add content as a paragraph
+		document.add(new Paragraph(content).addStyle(resources.bodyStyle()));
+
+		// Close the document (flushes the remaining bytes to out)
+		document.close();
+	}
+
+	@Override
+	public String getFileName() {
+		return "document.pdf";
+	}
+
 	@Override
-    public String generate(String content) throws Exception {
-        // Specify the file name
-        String fileName = "document.pdf";
-        
-        // Initialize PdfWriter
-        PdfWriter writer = new PdfWriter(new FileOutputStream(fileName));
-        
-        // Initialize PdfDocument with PdfWriter
-        PdfDocument pdfDoc = new PdfDocument(writer);
-        
-        // Initialize the layout document (which handles content layout)
-        Document document = new Document(pdfDoc);
-        
-        // Add content as a paragraph
-        document.add(new Paragraph(content));
-        
-        // Close the document
-        document.close();
-
-        // Return the file name
-        return fileName;
-    }
-	
-	
-}
\ No newline at end of file
+	public String getContentType() {
+		return "application/pdf";
+	}
+}
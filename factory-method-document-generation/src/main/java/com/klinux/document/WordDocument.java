@@ -1,13 +1,56 @@
 package com.klinux.document;
 
+import java.io.OutputStream;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+
+import com.klinux.document.word.WordTemplate;
+
+// DOCX built with POI XWPF on top of a cached template. Each line of content is a paragraph;
+// lines starting with "# " use the template's Heading1 style.
 public class WordDocument implements Document {
+
+	private final WordTemplate template;
+
+	public WordDocument() {
+		this(WordTemplate.blank());
+	}
+
+	public WordDocument(WordTemplate template) {
+		this.template = template;
+	}
+
+	@Override
+	public void write(String content, OutputStream out) throws Exception {
+		try (XWPFDocument document = template.newDocument()) {
+			int start = 0;
+			while (start <= content.length()) {
+				int end = content.indexOf('\n', start);
+				if (end < 0) {
+					end = content.length();
+				}
+				String line = content.substring(start, end > start && content.charAt(end - 1) == '\r' ? end - 1 : end);
+				XWPFParagraph paragraph = document.createParagraph();
+				if (line.startsWith("# ")) {
+					paragraph.setStyle("Heading1");
+					line = line.substring(2);
+				}
+				paragraph.createRun().setText(line);
+				start = end + 1;
+			}
+			document.write(out);
+		}
+	}
+
+	@Override
+	public String getFileName() {
+		// File name for Word
+		return "document.docx";
+	}
+
 	@Override
-    public String generate(String content) throws Exception {
-        // File name for Word
-        String fileName = "document.docx";
-        
-        // Logic for generating the Word document...
-
-        return fileName;
-    }
-}
\ No newline at end of file
+	public String getContentType() {
+		return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+	}
+}
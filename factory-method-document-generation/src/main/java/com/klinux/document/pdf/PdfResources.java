@@ -0,0 +1,110 @@
+package com.klinux.document.pdf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.layout.Style;
+
+// iText state that does not belong to a single PDF, loaded once and shared by every render:
+// - the body font program (documents.pdf.font, a resource location such as classpath:fonts/x.ttf;
+//   Helvetica when empty). Parsing a TrueType file is the expensive part of creating a font; each
+//   document only wraps the parsed program in its own PdfFont, which embeds the glyphs it used as a subset.
+// - decoded images by resource location, including the optional logo (documents.pdf.logo)
+// - the paragraph styles
+// PdfFont itself is bound to one PdfDocument and cannot be shared. The Style objects are never modified
+// after construction, so concurrent renders only read them.
+@Component
+public class PdfResources {
+
+    private static final class Standard {
+        static final PdfResources INSTANCE = new PdfResources("", 11f, "");
+    }
+
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final FontProgram bodyFontProgram;
+    private final boolean embedded;
+    private final Style bodyStyle;
+    private final Style logoStyle;
+    private final ImageData logo;
+    private final ConcurrentMap<String, ImageData> images = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PdfResources(@Value("${documents.pdf.font:}") String font,
+            @Value("${documents.pdf.font-size:11}") float fontSize,
+            @Value("${documents.pdf.logo:}") String logo) {
+        try {
+            this.embedded = !font.isEmpty();
+            // Not registered in iText's own font cache: this instance is the cache
+            this.bodyFontProgram = embedded ? FontProgramFactory.createFont(read(font), false)
+                    : FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load PDF font " + font, e);
+        }
+        this.bodyStyle = new Style().setFontSize(fontSize);
+        this.logoStyle = new Style().setMarginBottom(12f);
+        this.logo = logo.isEmpty() ? null : image(logo);
+    }
+
+    // Helvetica, no logo; for documents created outside the Spring context
+    public static PdfResources standard() {
+        return Standard.INSTANCE;
+    }
+
+    // A new PdfFont over the shared font program; a PdfFont is bound to the first PdfDocument it is used in,
+    // so call this once per document
+    public PdfFont bodyFont() throws IOException {
+        return embedded ? PdfFontFactory.createFont(bodyFontProgram, PdfEncodings.IDENTITY_H, true)
+                : PdfFontFactory.createFont(bodyFontProgram, PdfEncodings.WINANSI, false);
+    }
+
+    public Style bodyStyle() {
+        return bodyStyle;
+    }
+
+    public Style logoStyle() {
+        return logoStyle;
+    }
+
+    // The configured logo, or null
+    public ImageData logo() {
+        return logo;
+    }
+
+    public ImageData image(String location) {
+        ImageData image = images.get(location);
+        return image != null ? image : images.computeIfAbsent(location, this::loadImage);
+    }
+
+    private ImageData loadImage(String location) {
+        try {
+            return ImageDataFactory.create(read(location));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load PDF image " + location, e);
+        }
+    }
+
+    private byte[] read(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
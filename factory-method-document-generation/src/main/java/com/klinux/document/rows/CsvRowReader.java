@@ -0,0 +1,89 @@
+package com.klinux.document.rows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV: comma separated, fields optionally quoted, "" inside quotes for a quote,
+// quoted fields may span lines. Blank lines are skipped.
+public class CsvRowReader implements RowReader {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int pending = -2;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public List<Object> next() throws IOException {
+        List<Object> row = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                if (row.isEmpty() && field.length() == 0 && !fieldStarted) {
+                    // Blank line
+                    continue;
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+        if (row.isEmpty() && field.length() == 0 && !fieldStarted) {
+            return null;
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -0,0 +1,119 @@
+package com.klinux.document.rows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+// A JSON array of rows, read with Jackson's streaming parser. Rows are either arrays of values or
+// objects; for objects the first one's field names become a header row and fix the column order
+// (fields the first object did not have are ignored). Nested values are skipped.
+public class JsonRowReader implements RowReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonParser parser;
+    private List<String> columns;
+    private Map<String, Integer> columnIndex;
+    private List<Object> pendingRow;
+
+    public JsonRowReader(Reader reader) throws IOException {
+        this.parser = JSON.createParser(reader);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of rows");
+        }
+    }
+
+    @Override
+    public List<Object> next() throws IOException {
+        if (pendingRow != null) {
+            List<Object> row = pendingRow;
+            pendingRow = null;
+            return row;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            List<Object> row = new ArrayList<>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                row.add(value(token));
+            }
+            return row;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            return columns == null ? headerThenRow() : objectRow();
+        }
+        // A bare value is a single-cell row
+        List<Object> row = new ArrayList<>(1);
+        row.add(value(token));
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    // First object: its field names are returned now, its values on the next call
+    private List<Object> headerThenRow() throws IOException {
+        columns = new ArrayList<>();
+        columnIndex = new HashMap<>();
+        List<Object> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            columnIndex.put(name, columns.size());
+            columns.add(name);
+            values.add(value(parser.nextToken()));
+        }
+        pendingRow = values;
+        return new ArrayList<>(columns);
+    }
+
+    private List<Object> objectRow() throws IOException {
+        Object[] values = new Object[columns.size()];
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            Integer index = columnIndex.get(parser.currentName());
+            Object value = value(parser.nextToken());
+            if (index != null) {
+                values[index] = value;
+            }
+        }
+        List<Object> row = new ArrayList<>(values.length);
+        for (Object value : values) {
+            row.add(value);
+        }
+        return row;
+    }
+
+    private Object value(JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                // Integers beyond long keep their digits as text instead of rounding through double
+                return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? parser.getText() : parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case START_ARRAY:
+            case START_OBJECT:
+                parser.skipChildren();
+                return null;
+            default:
+                return parser.getText();
+        }
+    }
+}
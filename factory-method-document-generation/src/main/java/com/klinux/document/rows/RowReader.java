@@ -0,0 +1,30 @@
+package com.klinux.document.rows;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+// Reads tabular content one row at a time, so a document can be written while its input is still
+// being read. Values are String, Long, Double or Boolean (JSON) or String (CSV); null for empty JSON values.
+public interface RowReader extends Closeable {
+
+    // Next row, or null at the end of the input
+    List<Object> next() throws IOException;
+
+    // JSON when the first non-blank character is '[', CSV otherwise. Leading whitespace is consumed one
+    // character at a time, so any amount of it fits in the mark; it is dropped for both formats.
+    static RowReader open(Reader content) throws IOException {
+        BufferedReader reader = content instanceof BufferedReader buffered ? buffered : new BufferedReader(content);
+        int c;
+        do {
+            reader.mark(1);
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        if (c != -1) {
+            reader.reset();
+        }
+        return c == '[' ? new JsonRowReader(reader) : new CsvRowReader(reader);
+    }
+}
@@ -0,0 +1,193 @@
+package com.klinux.document.word;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.ooxml.POIXMLTypeLoader;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.model.XWPFHeaderFooterPolicy;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.NumberingDocument;
+
+// The reusable parts of a base .docx (styles, numbering, default header and footer, page setup),
+// parsed once. newDocument() copies those parsed XML objects into a blank document, which is much
+// cheaper than unzipping and parsing the template package again for every request.
+// The header and footer keep their images and hyperlinks: the related parts are copied with the XML and
+// the relationship ids in the XML are rewritten to the new part's ids. Other related parts (charts,
+// embedded objects) are not copied, so a header or footer using them renders without them.
+public class WordTemplate {
+
+    private static final WordTemplate BLANK = new WordTemplate(null, null, null, null, null);
+
+    private static final String RELATIONSHIPS_NAMESPACE =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private record Picture(String relationId, byte[] data, int pictureType) {
+    }
+
+    private record Link(String relationId, String target) {
+    }
+
+    // A header or footer: its XML plus the images and hyperlinks it refers to by relationship id
+    private record HeaderFooter(CTHdrFtr xml, List<Picture> pictures, List<Link> links) {
+
+        static HeaderFooter of(XWPFHeaderFooter part) throws IOException {
+            List<Picture> pictures = new ArrayList<>();
+            for (XWPFPictureData picture : part.getAllPictures()) {
+                pictures.add(new Picture(part.getRelationId(picture), picture.getData(), picture.getPictureType()));
+            }
+            List<Link> links = new ArrayList<>();
+            try {
+                for (PackageRelationship link : part.getPackagePart()
+                        .getRelationshipsByType(XWPFRelation.HYPERLINK.getRelation())) {
+                    links.add(new Link(link.getId(), link.getTargetURI().toString()));
+                }
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid Word template", e);
+            }
+            return new HeaderFooter((CTHdrFtr) part._getHdrFtr().copy(), List.copyOf(pictures), List.copyOf(links));
+        }
+
+        // The related parts go in first: the header reads its pictures by id when its XML is set
+        void copyTo(XWPFHeaderFooter target) {
+            Map<String, String> ids = new HashMap<>();
+            try {
+                for (Picture picture : pictures) {
+                    ids.put(picture.relationId(), target.addPictureData(picture.data(), picture.pictureType()));
+                }
+            } catch (InvalidFormatException e) {
+                throw new IllegalStateException("Failed to copy a Word template picture", e);
+            }
+            for (Link link : links) {
+                ids.put(link.relationId(), target.getPackagePart()
+                        .addExternalRelationship(link.target(), XWPFRelation.HYPERLINK.getRelation()).getId());
+            }
+            CTHdrFtr copy = (CTHdrFtr) xml.copy();
+            if (!ids.entrySet().stream().allMatch(id -> id.getKey().equals(id.getValue()))) {
+                renameRelations(copy, ids);
+            }
+            target.setHeaderFooter(copy);
+        }
+
+        // Rewrites r:embed, r:id, r:link and the like; the XML is a few paragraphs, so a full walk is cheap
+        private static void renameRelations(CTHdrFtr xml, Map<String, String> ids) {
+            XmlCursor cursor = xml.newCursor();
+            try {
+                while (!cursor.toNextToken().isNone()) {
+                    if (cursor.isAttr()) {
+                        QName name = cursor.getName();
+                        String id = RELATIONSHIPS_NAMESPACE.equals(name.getNamespaceURI())
+                                ? ids.get(cursor.getTextValue()) : null;
+                        if (id != null) {
+                            cursor.setTextValue(id);
+                        }
+                    }
+                }
+            } finally {
+                cursor.dispose();
+            }
+        }
+    }
+
+    private final CTStyles styles;
+    private final CTNumbering numbering;
+    private final HeaderFooter header;
+    private final HeaderFooter footer;
+    private final CTSectPr sectionProperties;
+
+    private WordTemplate(CTStyles styles, CTNumbering numbering, HeaderFooter header, HeaderFooter footer,
+            CTSectPr sectionProperties) {
+        this.styles = styles;
+        this.numbering = numbering;
+        this.header = header;
+        this.footer = footer;
+        this.sectionProperties = sectionProperties;
+    }
+
+    public static WordTemplate blank() {
+        return BLANK;
+    }
+
+    public static WordTemplate parse(InputStream docx) throws IOException {
+        try (XWPFDocument template = new XWPFDocument(docx)) {
+            CTStyles styles = template.getStyle();
+
+            CTNumbering numbering = null;
+            XWPFNumbering numberingPart = template.getNumbering();
+            if (numberingPart != null) {
+                try (InputStream in = numberingPart.getPackagePart().getInputStream()) {
+                    numbering = NumberingDocument.Factory.parse(in, POIXMLTypeLoader.DEFAULT_XML_OPTIONS).getNumbering();
+                }
+            }
+
+            HeaderFooter header = null;
+            HeaderFooter footer = null;
+            XWPFHeaderFooterPolicy policy = template.getHeaderFooterPolicy();
+            if (policy != null) {
+                XWPFHeader defaultHeader = policy.getDefaultHeader();
+                header = defaultHeader == null ? null : HeaderFooter.of(defaultHeader);
+                XWPFFooter defaultFooter = policy.getDefaultFooter();
+                footer = defaultFooter == null ? null : HeaderFooter.of(defaultFooter);
+            }
+
+            CTSectPr sectionProperties = null;
+            if (template.getDocument().getBody().isSetSectPr()) {
+                sectionProperties = (CTSectPr) template.getDocument().getBody().getSectPr().copy();
+                // The references point at the template's relationship ids; newDocument() creates its own
+                while (sectionProperties.sizeOfHeaderReferenceArray() > 0) {
+                    sectionProperties.removeHeaderReference(0);
+                }
+                while (sectionProperties.sizeOfFooterReferenceArray() > 0) {
+                    sectionProperties.removeFooterReference(0);
+                }
+            }
+
+            return new WordTemplate(styles == null ? null : (CTStyles) styles.copy(), numbering, header, footer,
+                    sectionProperties);
+        } catch (XmlException e) {
+            throw new IOException("Invalid Word template", e);
+        }
+    }
+
+    // A new document carrying copies of the template parts; the caller adds the body and closes it
+    public XWPFDocument newDocument() {
+        XWPFDocument document = new XWPFDocument();
+        if (styles != null) {
+            document.createStyles().setStyles((CTStyles) styles.copy());
+        }
+        if (numbering != null) {
+            document.createNumbering().setNumbering((CTNumbering) numbering.copy());
+        }
+        if (sectionProperties != null) {
+            // Before the header and footer, which add their references to these section properties
+            document.getDocument().getBody().setSectPr((CTSectPr) sectionProperties.copy());
+        }
+        if (header != null) {
+            header.copyTo(document.createHeader(HeaderFooterType.DEFAULT));
+        }
+        if (footer != null) {
+            footer.copyTo(document.createFooter(HeaderFooterType.DEFAULT));
+        }
+        return document;
+    }
+}
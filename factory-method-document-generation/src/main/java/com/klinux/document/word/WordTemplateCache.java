@@ -0,0 +1,49 @@
+package com.klinux.document.word;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+// Parsed Word templates by name, loaded from classpath:templates/<name>.docx the first time they are
+// used and kept for the life of the application. A name without a template file maps to a blank template.
+@Component
+public class WordTemplateCache {
+
+    private final ConcurrentMap<String, WordTemplate> templates = new ConcurrentHashMap<>();
+    private final String defaultTemplate;
+
+    public WordTemplateCache(@Value("${documents.word.template:letterhead}") String defaultTemplate) {
+        this.defaultTemplate = defaultTemplate;
+    }
+
+    public WordTemplate get(String name) {
+        WordTemplate template = templates.get(name);
+        return template != null ? template : templates.computeIfAbsent(name, this::load);
+    }
+
+    public WordTemplate getDefault() {
+        return get(defaultTemplate);
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private WordTemplate load(String name) {
+        ClassPathResource resource = new ClassPathResource("templates/" + name + ".docx");
+        if (!resource.exists()) {
+            return WordTemplate.blank();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return WordTemplate.parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load Word template " + name, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.klinux.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class ContentTooLargeException extends IllegalArgumentException {
+    public ContentTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.klinux.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownJobPriorityException extends IllegalArgumentException {
+    public UnknownJobPriorityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.klinux.factory;
+
+// What a DocumentFactory's documents can do, used by DocumentGenerationService to route work:
+// - streamingInput: Document.write(Reader, OutputStream) consumes the content incrementally, so the
+//   type may be used for unbounded exports (POST /documents/export)
+// - maxContentLength: largest content, in characters, accepted for a single in-memory render
+public record DocumentCapabilities(boolean streamingInput, long maxContentLength) {
+
+    public boolean accepts(long contentLength) {
+        return contentLength <= maxContentLength;
+    }
+}
@@ -5,10 +5,8 @@ import com.klinux.document.Document;
 public abstract class DocumentFactory {
 	 public abstract Document createDocument();
 
-	    // Modify this method to return the file name of the generated document
-	    public String generateDocument(String content) throws Exception {
-	        Document document = createDocument();
-	        String fileName = document.generate(content);
-	        return fileName;
-	    }
-}
\ No newline at end of file
+	    // Document type clients send to select this factory, matched case-insensitively (see DocumentFactoryRegistry)
+	    public abstract String getType();
+
+	    public abstract DocumentCapabilities getCapabilities();
+}
@@ -0,0 +1,52 @@
+package com.klinux.factory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+
+import com.klinux.exception.UnknownDocumentTypeException;
+
+// Registry of every DocumentFactory bean, keyed by DocumentFactory.getType().
+// A new format only needs a @Component factory with its own type; nothing here changes.
+// Lookups compare the type case-insensitively (String.CASE_INSENSITIVE_ORDER), so no lower-cased
+// copy of the request string is allocated; with a handful of formats a sorted map is all it takes.
+@Component
+public class DocumentFactoryRegistry {
+
+    private final Map<String, DocumentFactory> factories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, DocumentCapabilities> capabilities;
+
+    public DocumentFactoryRegistry(List<DocumentFactory> documentFactories) {
+        Map<String, DocumentCapabilities> byType = new LinkedHashMap<>();
+        for (DocumentFactory factory : documentFactories) {
+            String key = factory.getType();
+            if (key == null || key.isEmpty()) {
+                throw new IllegalStateException("Document factory " + factory.getClass().getName() + " has no type");
+            }
+            DocumentFactory previous = factories.putIfAbsent(key, factory);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate document type '" + key + "': "
+                        + previous.getClass().getName() + " and " + factory.getClass().getName());
+            }
+            byType.put(key, factory.getCapabilities());
+        }
+        this.capabilities = Collections.unmodifiableMap(byType);
+    }
+
+    public DocumentFactory getDocumentFactory(String type) {
+        DocumentFactory factory = type == null ? null : factories.get(type);
+        if (factory == null) {
+            throw new UnknownDocumentTypeException("Unknown document type: " + type);
+        }
+        return factory;
+    }
+
+    // Every registered type with its capabilities, in registration order
+    public Map<String, DocumentCapabilities> getCapabilities() {
+        return capabilities;
+    }
+}
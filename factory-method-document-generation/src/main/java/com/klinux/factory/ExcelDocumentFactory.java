@@ -1,11 +1,39 @@
 package com.klinux.factory;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
 import com.klinux.document.Document;
 import com.klinux.document.ExcelDocument;
 
+@Component
 public class ExcelDocumentFactory extends DocumentFactory {
+
+    private final DocumentCapabilities capabilities;
+
+    public ExcelDocumentFactory() {
+        this(50_000_000);
+    }
+
+    // Rows are streamed (see ExcelDocument); the limit only applies to content passed as a string
+    @Autowired
+    public ExcelDocumentFactory(@Value("${documents.excel.max-content-length:50000000}") long maxContentLength) {
+        this.capabilities = new DocumentCapabilities(true, maxContentLength);
+    }
+
     @Override
     public Document createDocument() {
         return new ExcelDocument();
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getType() {
+        return "excel";
+    }
+
+    @Override
+    public DocumentCapabilities getCapabilities() {
+        return capabilities;
+    }
+}
@@ -1,19 +1,43 @@
 package com.klinux.factory;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
 import com.klinux.document.Document;
 import com.klinux.document.PDFDocument;
+import com.klinux.document.pdf.PdfResources;
 
+@Component
 public class PDFDocumentFactory extends DocumentFactory {
+
+	private final PdfResources resources;
+	private final DocumentCapabilities capabilities;
+
+	public PDFDocumentFactory() {
+		this(PdfResources.standard(), 1_000_000);
+	}
+
+	@Autowired
+	public PDFDocumentFactory(PdfResources resources,
+			@Value("${documents.pdf.max-content-length:1000000}") long maxContentLength) {
+		this.resources = resources;
+		// The whole text is laid out in memory
+		this.capabilities = new DocumentCapabilities(false, maxContentLength);
+	}
 	 
 	@Override
 	    public Document createDocument() {
-	        return new PDFDocument();
+	        return new PDFDocument(resources);
 	    }
 
-	    @Override
-	    public String generateDocument(String content) throws Exception {
-	        PDFDocument document = (PDFDocument) createDocument();
-	        document.generate(content);  // This creates the file
-	        return "document.pdf";  // Return the file name (or full path if needed)
-	    }
+	@Override
+	public String getType() {
+		return "pdf";
+	}
+
+	@Override
+	public DocumentCapabilities getCapabilities() {
+		return capabilities;
+	}
 }
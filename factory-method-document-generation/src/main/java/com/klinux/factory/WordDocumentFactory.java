@@ -1,11 +1,37 @@
 package com.klinux.factory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
 import com.klinux.document.Document;
 import com.klinux.document.WordDocument;
+import com.klinux.document.word.WordTemplateCache;
 
+@Component
 public class WordDocumentFactory extends DocumentFactory {
+
+    private final WordTemplateCache templateCache;
+    private final DocumentCapabilities capabilities;
+
+    public WordDocumentFactory(WordTemplateCache templateCache,
+            @Value("${documents.word.max-content-length:5000000}") long maxContentLength) {
+        this.templateCache = templateCache;
+        // XWPF keeps the whole document in memory
+        this.capabilities = new DocumentCapabilities(false, maxContentLength);
+    }
+
     @Override
     public Document createDocument() {
-        return new WordDocument();
+        return new WordDocument(templateCache.getDefault());
+    }
+
+    @Override
+    public String getType() {
+        return "word";
+    }
+
+    @Override
+    public DocumentCapabilities getCapabilities() {
+        return capabilities;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.klinux.job;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import com.klinux.store.StoredDocument;
+
+// One queued render; state changes are made by the scheduler's worker, reads come from the status endpoint.
+// The content is dropped once the job finishes, so a retained job holds only its status.
+public class DocumentJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String type;
+    private final JobPriority priority;
+    private final int cost;
+    private final Clock clock;
+    private final Instant submittedAt;
+    private final long submittedNanos = System.nanoTime();
+    private volatile String content;
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile StoredDocument document;
+    private volatile String error;
+
+    DocumentJob(String id, String type, String content, JobPriority priority, int cost, Clock clock) {
+        this.id = id;
+        this.type = type;
+        this.content = content;
+        this.priority = priority;
+        this.cost = cost;
+        this.clock = clock;
+        this.submittedAt = clock.instant();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    // null once the job has finished
+    String getContent() {
+        return content;
+    }
+
+    public JobPriority getPriority() {
+        return priority;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // The stored document once the job has completed, otherwise null
+    public StoredDocument getDocument() {
+        return document;
+    }
+
+    long getSubmittedNanos() {
+        return submittedNanos;
+    }
+
+    void start() {
+        startedAt = clock.instant();
+        state = State.RUNNING;
+    }
+
+    void complete(StoredDocument storedDocument) {
+        document = storedDocument;
+        finish(State.COMPLETED);
+    }
+
+    void fail(String message) {
+        error = message;
+        finish(State.FAILED);
+    }
+
+    private void finish(State finalState) {
+        content = null;
+        finishedAt = clock.instant();
+        state = finalState;
+    }
+
+    boolean isFinishedBefore(Instant instant) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(instant);
+    }
+
+    public DocumentJobStatus status() {
+        StoredDocument stored = document;
+        return new DocumentJobStatus(id, type, priority, state, cost, submittedAt, startedAt, finishedAt,
+                stored == null ? null : stored.id(), error);
+    }
+}
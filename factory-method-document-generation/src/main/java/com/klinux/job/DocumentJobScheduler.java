@@ -0,0 +1,249 @@
+package com.klinux.job;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.exception.JobQueueFullException;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.service.DocumentGenerationService;
+import com.klinux.store.StoredDocument;
+
+import jakarta.annotation.PreDestroy;
+
+// Runs document renders off the request threads, on documents.jobs.workers worker threads fed by one
+// bounded queue per JobPriority. Submitting to a full lane fails with JobQueueFullException (429).
+// - Lanes share the workers by deficit round robin over the estimated job cost (1 unit per
+//   documents.jobs.cost-unit-chars characters of content): each turn adds weight * quantum credit
+//   to a lane, which then runs jobs until the next one costs more than the credit left. With the default weights
+//   interactive work gets four times the render capacity of batch work, and a large PDF costs as much
+//   as many small ones instead of counting as one job.
+// - Batch jobs never occupy the last documents.jobs.interactive-reserved-workers workers, so an
+//   interactive job never waits behind a batch render that has already started.
+// Results go to the DocumentStore; a background sweep every documents.jobs.cleanup-interval-seconds
+// forgets jobs that finished more than documents.jobs.retention-minutes ago.
+@Component
+public class DocumentJobScheduler {
+
+    private static final int QUANTUM = 16;
+    private static final int MAX_COST = 1024;
+
+    private static final class Lane {
+        final ArrayDeque<DocumentJob> queue = new ArrayDeque<>();
+        final int capacity;
+        final int quantum;
+        final int maxRunning;
+        int deficit;
+        int running;
+
+        Lane(int capacity, int weight, int maxRunning) {
+            this.capacity = capacity;
+            this.quantum = Math.max(1, weight) * QUANTUM;
+            this.maxRunning = maxRunning;
+        }
+
+        boolean isEligible() {
+            return !queue.isEmpty() && running < maxRunning;
+        }
+    }
+
+    private final DocumentGenerationService documentGenerationService;
+    private final DocumentMetrics documentMetrics;
+    private final int costUnitChars;
+    private final Duration retention;
+    private final Clock clock;
+    private final Lane[] lanes = new Lane[JobPriority.values().length];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<String, DocumentJob> jobs = new ConcurrentHashMap<>();
+    private final String idPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService cleaner;
+    private int cursor;
+    private volatile boolean running = true;
+
+    @Autowired
+    public DocumentJobScheduler(DocumentGenerationService documentGenerationService, DocumentMetrics documentMetrics,
+            @Value("${documents.jobs.workers:0}") int workerThreads,
+            @Value("${documents.jobs.interactive.capacity:256}") int interactiveCapacity,
+            @Value("${documents.jobs.interactive.weight:4}") int interactiveWeight,
+            @Value("${documents.jobs.batch.capacity:10000}") int batchCapacity,
+            @Value("${documents.jobs.batch.weight:1}") int batchWeight,
+            @Value("${documents.jobs.interactive-reserved-workers:0}") int reservedWorkers,
+            @Value("${documents.jobs.cost-unit-chars:4096}") int costUnitChars,
+            @Value("${documents.jobs.retention-minutes:10}") long retentionMinutes,
+            @Value("${documents.jobs.cleanup-interval-seconds:60}") long cleanupIntervalSeconds) {
+        this(documentGenerationService, documentMetrics, workerThreads, interactiveCapacity, interactiveWeight,
+                batchCapacity, batchWeight, reservedWorkers, costUnitChars, Duration.ofMinutes(retentionMinutes),
+                Clock.systemUTC());
+        cleaner.scheduleWithFixedDelay(this::evictExpired, cleanupIntervalSeconds, cleanupIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    DocumentJobScheduler(DocumentGenerationService documentGenerationService, DocumentMetrics documentMetrics,
+            int workerThreads, int interactiveCapacity, int interactiveWeight, int batchCapacity, int batchWeight,
+            int reservedWorkers, int costUnitChars, Duration retention, Clock clock) {
+        this.documentGenerationService = documentGenerationService;
+        this.documentMetrics = documentMetrics;
+        this.costUnitChars = Math.max(1, costUnitChars);
+        this.retention = retention;
+        this.clock = clock;
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 0 means one worker per core, and a quarter of them (at least one) kept for interactive jobs
+        int workerCount = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+        int reserved = reservedWorkers > 0 ? reservedWorkers : Math.max(1, workerCount / 4);
+        lanes[JobPriority.INTERACTIVE.ordinal()] = new Lane(interactiveCapacity, interactiveWeight, workerCount);
+        lanes[JobPriority.BATCH.ordinal()] = new Lane(batchCapacity, batchWeight, Math.max(1, workerCount - reserved));
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "document-job-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    public DocumentJob submit(String type, String content, JobPriority priority) {
+        // Fail fast on unknown types and oversized content instead of queueing a job that cannot succeed
+        documentGenerationService.checkContent(type, content);
+
+        DocumentJob job = new DocumentJob(idPrefix + sequence.incrementAndGet(), type, content, priority,
+                estimateCost(content), clock);
+        Lane lane = lanes[priority.ordinal()];
+        lock.lock();
+        try {
+            if (lane.queue.size() >= lane.capacity) {
+                throw new JobQueueFullException("The " + priority.name().toLowerCase(Locale.ROOT) + " queue is full ("
+                        + lane.capacity + " jobs)");
+            }
+            jobs.put(job.getId(), job);
+            lane.queue.addLast(job);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        return job;
+    }
+
+    public Optional<DocumentJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public int queued(JobPriority priority) {
+        lock.lock();
+        try {
+            return lanes[priority.ordinal()].queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    // Forgets jobs that finished more than the retention period ago
+    void evictExpired() {
+        Instant cutoff = clock.instant().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    int estimateCost(String content) {
+        return (int) Math.min(MAX_COST, 1 + content.length() / costUnitChars);
+    }
+
+    private void work() {
+        while (running) {
+            DocumentJob job;
+            lock.lock();
+            try {
+                while ((job = next()) == null) {
+                    available.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            documentMetrics.recordQueueWait(job.getType(), job.getPriority().name().toLowerCase(Locale.ROOT),
+                    System.nanoTime() - job.getSubmittedNanos());
+            try {
+                job.start();
+                StoredDocument document = documentGenerationService.generateDocument(job.getType(), job.getContent());
+                job.complete(document);
+            } catch (Exception e) {
+                job.fail(e.getMessage());
+            } finally {
+                lock.lock();
+                try {
+                    lanes[job.getPriority().ordinal()].running--;
+                    // A batch slot may have opened up for a worker that found only batch jobs
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Deficit round robin; called with the lock held, returns null when no lane may run a job now
+    private DocumentJob next() {
+        boolean eligible = false;
+        for (Lane lane : lanes) {
+            eligible |= lane.isEligible();
+        }
+        if (!eligible) {
+            return null;
+        }
+        while (true) {
+            Lane lane = lanes[cursor];
+            if (lane.isEligible() && lane.deficit >= lane.queue.peekFirst().getCost()) {
+                // The lane keeps its turn while it has credit left
+                DocumentJob job = lane.queue.pollFirst();
+                lane.deficit -= job.getCost();
+                lane.running++;
+                return job;
+            }
+            if (lane.queue.isEmpty()) {
+                // An idle lane does not bank credit
+                lane.deficit = 0;
+            }
+            cursor = (cursor + 1) % lanes.length;
+            Lane nextLane = lanes[cursor];
+            if (nextLane.isEligible()) {
+                nextLane.deficit += nextLane.quantum;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        cleaner.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.klinux.job;
+
+import java.time.Instant;
+
+// documentId is the DocumentStore id once the job has completed; error is set when it failed
+public record DocumentJobStatus(String id, String type, JobPriority priority, DocumentJob.State state, int cost,
+        Instant submittedAt, Instant startedAt, Instant finishedAt, String documentId, String error) {
+}
@@ -0,0 +1,21 @@
+package com.klinux.job;
+
+import com.klinux.exception.UnknownJobPriorityException;
+
+// Scheduling lane of a document job; clients send the lower-case name
+public enum JobPriority {
+    // A user is waiting for the document
+    INTERACTIVE,
+    // Scheduled runs (statements, reports); may wait behind interactive work
+    BATCH;
+
+    // Matches the name case-insensitively; anything else is an UnknownJobPriorityException (400)
+    public static JobPriority fromName(String name) {
+        for (JobPriority priority : values()) {
+            if (priority.name().equalsIgnoreCase(name)) {
+                return priority;
+            }
+        }
+        throw new UnknownJobPriorityException("Unknown job priority: " + name);
+    }
+}
@@ -0,0 +1,76 @@
+package com.klinux.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+import com.klinux.document.Document;
+
+// Instrumentation of document renders, read by GET /documents/metrics and recorded as the JFR events
+// com.klinux.DocumentRender and com.klinux.DocumentQueueWait. Every Document handed out by
+// DocumentGenerationService is wrapped (see InstrumentedDocument), so all paths are measured: single
+// requests, the store, cache misses, bulk ZIPs, jobs and exports. Cache hits render nothing and are
+// not counted here. Renders take milliseconds, so every one is timed.
+@Component
+public class DocumentMetrics {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final ConcurrentMap<String, FormatMetrics> formats = new ConcurrentHashMap<>();
+
+    public DocumentMetrics() {
+        this.threads = allocationTrackingThreadBean();
+    }
+
+    public Document instrument(String type, Document document) {
+        return new InstrumentedDocument(document, this, forType(type));
+    }
+
+    // Time a job or bulk item spent queued; queue names the lane ("interactive", "batch", "bulk")
+    public void recordQueueWait(String type, String queue, long nanos) {
+        // Types come from the request here; document types are registered in lower case
+        type = type.toLowerCase(Locale.ROOT);
+        forType(type).recordQueueWait(nanos);
+        DocumentQueueWaitEvent event = new DocumentQueueWaitEvent();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.queue = queue;
+            event.waitNanos = nanos;
+            event.commit();
+        }
+    }
+
+    public List<FormatStats> snapshot() {
+        List<FormatStats> stats = new ArrayList<>(formats.size());
+        for (FormatMetrics metrics : formats.values()) {
+            stats.add(metrics.stats());
+        }
+        stats.sort((a, b) -> a.type().compareTo(b.type()));
+        return stats;
+    }
+
+    FormatMetrics forType(String type) {
+        FormatMetrics metrics = formats.get(type);
+        return metrics != null ? metrics : formats.computeIfAbsent(type, FormatMetrics::new);
+    }
+
+    // Bytes allocated so far by the calling thread, or -1 when the JVM cannot tell
+    long currentThreadAllocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTrackingThreadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,27 @@
+package com.klinux.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.klinux.DocumentQueueWait")
+@Label("Document Queue Wait")
+@Category({ "Application", "Documents" })
+@Description("Time a document job or bulk item waited for a render thread")
+@StackTrace(false)
+public class DocumentQueueWaitEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Queue")
+    String queue;
+
+    @Label("Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitNanos;
+}
@@ -0,0 +1,33 @@
+package com.klinux.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One Document.write, recorded by JFR when com.klinux.DocumentRender is enabled
+// (e.g. -XX:StartFlightRecording with settings=profile, or jcmd <pid> JFR.start)
+@Name("com.klinux.DocumentRender")
+@Label("Document Render")
+@Category({ "Application", "Documents" })
+@Description("Rendering of one document")
+@StackTrace(false)
+public class DocumentRenderEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Success")
+    boolean success;
+}
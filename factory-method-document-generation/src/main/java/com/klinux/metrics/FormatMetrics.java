@@ -0,0 +1,54 @@
+package com.klinux.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and histograms for one document type
+public class FormatMetrics {
+
+    private final String type;
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LatencyHistogram renderLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    FormatMetrics(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    // One render; negative allocated means allocation tracking is not available on this JVM
+    void recordRender(long nanos, long bytes, long allocated, boolean success) {
+        renderLatency.record(nanos);
+        renders.increment();
+        if (!success) {
+            failed.increment();
+        }
+        bytesOut.add(bytes);
+        if (allocated > 0) {
+            allocatedBytes.add(allocated);
+        }
+    }
+
+    void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    public FormatStats stats() {
+        LatencyHistogram.Snapshot latency = renderLatency.snapshot();
+        LatencyHistogram.Snapshot wait = queueWait.snapshot();
+        return new FormatStats(type, renders.sum(), failed.sum(), bytesOut.sum(), allocatedBytes.sum(),
+                millis(latency.valueAtPercentile(50)), millis(latency.valueAtPercentile(99)),
+                millis(latency.valueAtPercentile(99.9)), millis(latency.maxValue()),
+                wait.totalCount(), millis(wait.valueAtPercentile(50)), millis(wait.valueAtPercentile(99)),
+                millis(wait.maxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.klinux.metrics;
+
+// Render figures for one document type. Latencies are in milliseconds; allocatedBytes is the heap
+// allocated by the rendering threads. Queue wait covers jobs and bulk items, from submission until a
+// worker picked them up.
+public record FormatStats(String type, long renders, long failed, long bytesOut, long allocatedBytes,
+        double p50Millis, double p99Millis, double p999Millis, double maxMillis,
+        long queueWaitSamples, double queueWaitP50Millis, double queueWaitP99Millis, double queueWaitMaxMillis) {
+}
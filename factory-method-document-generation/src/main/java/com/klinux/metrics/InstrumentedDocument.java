@@ -0,0 +1,113 @@
+package com.klinux.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+
+import com.klinux.document.Document;
+
+// Measures each write of the wrapped document: wall time, bytes written to the caller's stream and
+// bytes allocated by the calling thread. Both write methods are forwarded, so streaming formats keep
+// reading their input incrementally.
+class InstrumentedDocument implements Document {
+
+    private final Document delegate;
+    private final DocumentMetrics documentMetrics;
+    private final FormatMetrics metrics;
+
+    InstrumentedDocument(Document delegate, DocumentMetrics documentMetrics, FormatMetrics metrics) {
+        this.delegate = delegate;
+        this.documentMetrics = documentMetrics;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void write(String content, OutputStream out) throws Exception {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        Render render = new Render();
+        boolean success = false;
+        try {
+            delegate.write(content, counting);
+            success = true;
+        } finally {
+            render.finish(counting.count, success);
+        }
+    }
+
+    @Override
+    public void write(Reader content, OutputStream out) throws Exception {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        Render render = new Render();
+        boolean success = false;
+        try {
+            delegate.write(content, counting);
+            success = true;
+        } finally {
+            render.finish(counting.count, success);
+        }
+    }
+
+    @Override
+    public String getFileName() {
+        return delegate.getFileName();
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    private final class Render {
+
+        private final DocumentRenderEvent event = new DocumentRenderEvent();
+        private final long startAllocated = documentMetrics.currentThreadAllocatedBytes();
+        private final long start = System.nanoTime();
+
+        Render() {
+            event.begin();
+        }
+
+        void finish(long bytes, boolean success) {
+            long nanos = System.nanoTime() - start;
+            long allocated = startAllocated < 0 ? -1 : documentMetrics.currentThreadAllocatedBytes() - startAllocated;
+            metrics.recordRender(nanos, bytes, allocated, success);
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = metrics.getType();
+                event.bytesOut = bytes;
+                event.allocatedBytes = Math.max(0, allocated);
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    // Counts bytes on their way to the caller's stream; closing it does not close that stream
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // FilterOutputStream would forward the array one byte at a time
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
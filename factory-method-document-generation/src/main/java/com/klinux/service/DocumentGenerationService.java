@@ -1,51 +1,112 @@
 package com.klinux.service;
 
+import com.klinux.cache.CachedDocument;
+import com.klinux.cache.DocumentCache;
+import com.klinux.document.Document;
+import com.klinux.exception.ContentTooLargeException;
+import com.klinux.factory.DocumentCapabilities;
 import com.klinux.factory.DocumentFactory;
-import com.klinux.factory.ExcelDocumentFactory;
-import com.klinux.factory.PDFDocumentFactory;
-import com.klinux.factory.WordDocumentFactory;
+import com.klinux.factory.DocumentFactoryRegistry;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.store.DocumentStore;
+import com.klinux.store.StoredDocument;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
 
 @Service
 public class DocumentGenerationService {
 
-    // Method to generate a document based on type and content
-    public String generateDocument(String type, String content) throws Exception {
-        DocumentFactory factory = getDocumentFactory(type);
-        String fileName = factory.generateDocument(content); // Generate the document and get the file name
+    private final DocumentStore documentStore;
+    private final DocumentFactoryRegistry documentFactoryRegistry;
+    private final DocumentCache documentCache;
+    private final DocumentMetrics documentMetrics;
+    private final boolean cacheEnabled;
 
-        // Optionally, handle additional steps like logging or file tracking here
+    public DocumentGenerationService(DocumentStore documentStore, DocumentFactoryRegistry documentFactoryRegistry,
+            DocumentCache documentCache, DocumentMetrics documentMetrics,
+            @Value("${documents.cache.enabled:true}") boolean cacheEnabled) {
+        this.documentStore = documentStore;
+        this.documentFactoryRegistry = documentFactoryRegistry;
+        this.documentCache = documentCache;
+        this.documentMetrics = documentMetrics;
+        this.cacheEnabled = cacheEnabled;
+    }
 
-        return fileName;  // Return the generated file name (could be used for further operations)
+    // Method to generate a document based on type and content; the result is kept in the DocumentStore
+    // under a new id until its TTL expires
+    public StoredDocument generateDocument(String type, String content) throws Exception {
+        if (!isCached(type)) {
+            Document document = createDocument(type, content);
+            return documentStore.store(document.getFileName(), document.getContentType(),
+                    out -> document.write(content, out));
+        }
+        try (CachedDocument rendered = renderDocument(type, content)) {
+            return documentStore.store(rendered.getFileName(), rendered.getContentType(), rendered::transferTo);
+        }
     }
 
-    // Method to return the appropriate document factory based on the type
-    private DocumentFactory getDocumentFactory(String type) {
-        switch (type.toLowerCase()) {
-            case "pdf":
-                return new PDFDocumentFactory();
-            case "excel":
-                return new ExcelDocumentFactory();
-            case "word":
-                return new WordDocumentFactory();
-            default:
-                throw new IllegalArgumentException("Unknown document type: " + type);
+    // Rendered document for (type, content). Identical pairs are rendered once and then served from
+    // the DocumentCache (documents.cache.enabled); close the result if it is not transferred.
+    public CachedDocument renderDocument(String type, String content) throws Exception {
+        Document document = createDocument(type, content);
+        if (!cacheEnabled) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(content, out);
+            return new CachedDocument(document.getFileName(), document.getContentType(), out.toByteArray());
         }
+        return documentCache.getOrRender(DocumentCache.key(type, content), document.getFileName(),
+                document.getContentType(), out -> document.write(content, out));
+    }
+
+    // Whether renders of type go through the DocumentCache. Streaming-input types (Excel) never do: the
+    // cache holds a whole render in memory, which would undo their streaming output.
+    public boolean isCached(String type) {
+        return cacheEnabled && !getDocumentFactory(type).getCapabilities().streamingInput();
+    }
+
+    // Document for the given type, to be written straight to a stream (see DocumentController)
+    public Document createDocument(String type) {
+        return newDocument(getDocumentFactory(type));
     }
 
-    // Optional: Method to handle storing the document to a specific location
-    private void storeDocument(File file) throws IOException {
-        // You can implement file storage logic here (e.g., saving to cloud, local storage, etc.)
-        // Example of storing in a local directory:
-        File destinationDir = new File("/path/to/save/documents");
-        if (!destinationDir.exists()) {
-            destinationDir.mkdirs(); // Create directories if not exist
+    // Same, after checking that content is within the type's maxContentLength
+    public Document createDocument(String type, String content) {
+        return newDocument(checkContent(type, content));
+    }
+
+    // Throws UnknownDocumentTypeException or ContentTooLargeException as createDocument(type, content)
+    // would, without creating a Document
+    public DocumentFactory checkContent(String type, String content) {
+        DocumentFactory factory = getDocumentFactory(type);
+        if (!factory.getCapabilities().accepts(content.length())) {
+            throw new ContentTooLargeException("Content of " + content.length() + " characters exceeds the "
+                    + factory.getType() + " limit of " + factory.getCapabilities().maxContentLength());
         }
-        
-        // Move the generated file to the desired directory (optional)
-        file.renameTo(new File(destinationDir, file.getName()));
+        return factory;
+    }
+
+    // Document that reads its content incrementally, for exports of unbounded size
+    public Document createStreamingDocument(String type) {
+        DocumentFactory factory = getDocumentFactory(type);
+        if (!factory.getCapabilities().streamingInput()) {
+            throw new IllegalArgumentException("Document type " + factory.getType() + " does not support streaming input");
+        }
+        return newDocument(factory);
+    }
+
+    public Map<String, DocumentCapabilities> getDocumentTypes() {
+        return documentFactoryRegistry.getCapabilities();
+    }
+
+    // Every document handed out is measured by DocumentMetrics
+    private Document newDocument(DocumentFactory factory) {
+        return documentMetrics.instrument(factory.getType(), factory.createDocument());
+    }
+
+    private DocumentFactory getDocumentFactory(String type) {
+        return documentFactoryRegistry.getDocumentFactory(type);
     }
 }
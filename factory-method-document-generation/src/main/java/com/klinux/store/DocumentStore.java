@@ -0,0 +1,190 @@
+package com.klinux.store;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Generated documents on disk under documents.store.root, one file per request. Ids start with the
+// owner of the file (process id + a random token per store instance), so several instances and
+// processes can share a root, and files are created with CREATE_NEW, so concurrent requests never
+// share a file. Every document is deleted documents.store.ttl-seconds after it was stored, by a
+// background sweep that also removes files left behind by processes that are no longer running.
+// The sweep never deletes files of another live owner, and only touches files named like a store id,
+// so other files in the root are left alone.
+@Component
+public class DocumentStore {
+
+    // <process id>-<instance token>-<sequence>, all base 36, then the extension of the document's file name
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-z]+)-[0-9a-z]+-[0-9a-z]+(\\.[A-Za-z0-9]+)?");
+
+    private final Path root;
+    private final Duration ttl;
+    private final BufferPool bufferPool;
+    private final Clock clock;
+    private final String idPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, StoredFile> documents = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner;
+
+    @Autowired
+    public DocumentStore(@Value("${documents.store.root:${java.io.tmpdir}/documents}") String root,
+            @Value("${documents.store.ttl-seconds:600}") long ttlSeconds,
+            @Value("${documents.store.cleanup-interval-seconds:60}") long cleanupIntervalSeconds,
+            @Value("${documents.store.buffer-size:65536}") int bufferSize,
+            @Value("${documents.store.max-pooled-buffers:32}") int maxPooledBuffers) throws IOException {
+        this(Paths.get(root), Duration.ofSeconds(ttlSeconds), new BufferPool(bufferSize, maxPooledBuffers),
+                Clock.systemUTC());
+        cleaner.scheduleWithFixedDelay(this::evictExpired, cleanupIntervalSeconds, cleanupIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    DocumentStore(Path root, Duration ttl, BufferPool bufferPool, Clock clock) throws IOException {
+        this.root = Files.createDirectories(root);
+        this.ttl = ttl;
+        this.bufferPool = bufferPool;
+        this.clock = clock;
+        this.idPrefix = Long.toString(ProcessHandle.current().pid(), 36) + "-"
+                + Long.toString(ThreadLocalRandom.current().nextInt() & 0xffffffffL, 36) + "-";
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-store-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Files from a previous run are unknown to this instance; they expire like any other leftover
+        cleaner.execute(this::evictExpired);
+    }
+
+    // Writes a new document; if the writer fails the partial file is removed and the error rethrown
+    public StoredDocument store(String fileName, String contentType, DocumentWriter writer) throws Exception {
+        String id = idPrefix + Long.toString(sequence.incrementAndGet(), 36);
+        Path path = root.resolve(id + extensionOf(fileName));
+        long size;
+        try (ChannelOutputStream out = new ChannelOutputStream(
+                FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), bufferPool)) {
+            writer.writeTo(out);
+            out.flush();
+            size = out.written();
+        } catch (FileAlreadyExistsException e) {
+            throw new IllegalStateException("Document id collision: " + id, e);
+        } catch (Exception e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        Instant now = clock.instant();
+        StoredDocument document = new StoredDocument(id, fileName, contentType, size, now, now.plus(ttl));
+        documents.put(id, new StoredFile(document, path));
+        return document;
+    }
+
+    public Optional<StoredDocument> find(String id) {
+        StoredFile entry = documents.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.document());
+    }
+
+    // The document and its file from one lookup, for downloads
+    public Optional<StoredFile> findFile(String id) {
+        return Optional.ofNullable(documents.get(id));
+    }
+
+    public boolean delete(String id) {
+        StoredFile entry = documents.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        deleteQuietly(entry.path());
+        return true;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Removes expired documents, and untracked files named like a store id and older than the TTL
+    // that belong to this instance or to a process that has exited
+    void evictExpired() {
+        Instant now = clock.instant();
+        documents.entrySet().removeIf(e -> {
+            if (e.getValue().document().expiresAt().isAfter(now)) {
+                return false;
+            }
+            deleteQuietly(e.getValue().path());
+            return true;
+        });
+
+        Map<String, Boolean> liveProcesses = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher matcher = FILE_NAME.matcher(name);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                if (!name.startsWith(idPrefix)
+                        && liveProcesses.computeIfAbsent(matcher.group(1), DocumentStore::isRunning)) {
+                    // Another store instance, in this or another process, sweeps its own files
+                    continue;
+                }
+                int dot = name.indexOf('.');
+                String id = dot < 0 ? name : name.substring(0, dot);
+                if (!documents.containsKey(id)
+                        && Files.getLastModifiedTime(file).toInstant().plus(ttl).isBefore(now)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            // Directory not readable right now; a scheduled task that throws would never run again
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    private static boolean isRunning(String pid) {
+        try {
+            return ProcessHandle.of(Long.parseLong(pid, 36)).map(ProcessHandle::isAlive).orElse(false);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Retried on the next sweep
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.klinux.store;
+
+import java.io.OutputStream;
+
+// Renders a document into the stream DocumentStore opens for it
+@FunctionalInterface
+public interface DocumentWriter {
+    void writeTo(OutputStream out) throws Exception;
+}
@@ -0,0 +1,8 @@
+package com.klinux.store;
+
+import java.time.Instant;
+
+// A generated document kept by DocumentStore until expiresAt
+public record StoredDocument(String id, String fileName, String contentType, long size, Instant createdAt,
+        Instant expiresAt) {
+}
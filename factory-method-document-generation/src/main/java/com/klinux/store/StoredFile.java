@@ -0,0 +1,7 @@
+package com.klinux.store;
+
+import java.nio.file.Path;
+
+// A stored document together with the file that holds it, as found by one DocumentStore lookup
+public record StoredFile(StoredDocument document, Path path) {
+}
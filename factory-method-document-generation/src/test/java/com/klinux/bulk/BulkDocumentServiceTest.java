@@ -0,0 +1,196 @@
+package com.klinux.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.klinux.document.Document;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.service.DocumentGenerationService;
+
+public class BulkDocumentServiceTest {
+
+    private final MutableClock clock = new MutableClock();
+    private BulkDocumentService bulkDocumentService;
+
+    static final class MutableClock extends Clock {
+
+        volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static Document textDocument() {
+        return new Document() {
+            @Override
+            public void write(String content, OutputStream out) throws Exception {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String getFileName() {
+                return "document.txt";
+            }
+
+            @Override
+            public String getContentType() {
+                return "text/plain";
+            }
+        };
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DocumentGenerationService documentGenerationService = mock(DocumentGenerationService.class);
+        when(documentGenerationService.createDocument(anyString(), anyString())).thenAnswer(invocation -> {
+            if ("text".equals(invocation.getArgument(0))) {
+                return textDocument();
+            }
+            throw new IllegalArgumentException("Unknown document type: " + invocation.getArgument(0));
+        });
+        bulkDocumentService = new BulkDocumentService(documentGenerationService, new DocumentMetrics(),
+                new MockEnvironment().withProperty("documents.bulk.threads.text", "2"), 3, Duration.ofMinutes(60),
+                Duration.ofSeconds(60), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkDocumentService.shutdown();
+    }
+
+    @Test
+    void writesEveryDocumentIntoTheZip() throws Exception {
+        List<BulkItem> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(new BulkItem("text", "content " + i));
+        }
+        BulkJob job = bulkDocumentService.start(items);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkDocumentService.writeZip(job, out);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertEquals(20, entries.size());
+        assertEquals("content 7", entries.get("000007-document.txt"));
+
+        BulkJobStatus status = bulkDocumentService.status(job.getId()).orElseThrow();
+        assertEquals(BulkJob.State.COMPLETED, status.state());
+        assertEquals(20, status.completed());
+        assertEquals(0, status.failed());
+        assertEquals(20, status.total());
+        // Only the count outlives the job
+        assertNull(job.items());
+    }
+
+    @Test
+    void listsFailedItemsInErrorsEntry() throws Exception {
+        BulkJob job = bulkDocumentService.start(List.of(new BulkItem("text", "ok"), new BulkItem("rtf", "nope")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkDocumentService.writeZip(job, out);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertEquals("ok", entries.get("000000-document.txt"));
+        assertTrue(entries.get("errors.txt").startsWith("1: Unknown document type"));
+        assertEquals(1, job.status().completed());
+        assertEquals(1, job.status().failed());
+    }
+
+    @Test
+    void cancelsJobWhenClientGoesAway() {
+        BulkJob job = bulkDocumentService.start(List.of(new BulkItem("text", "a"), new BulkItem("text", "b")));
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> bulkDocumentService.writeZip(job, closed));
+        assertEquals(BulkJob.State.CANCELLED, job.status().state());
+    }
+
+    @Test
+    void cancelsJobsWhoseZipIsNeverWritten() {
+        BulkJob job = bulkDocumentService.start(List.of(new BulkItem("text", "a")));
+
+        clock.now = clock.now.plusSeconds(30);
+        bulkDocumentService.evictExpired();
+        assertEquals(BulkJob.State.RUNNING, job.status().state());
+
+        clock.now = clock.now.plusSeconds(31);
+        bulkDocumentService.evictExpired();
+        assertEquals(BulkJob.State.CANCELLED, job.status().state());
+        assertNull(job.items());
+        // A response that starts after all is refused instead of rendering a cancelled job
+        assertThrows(IllegalStateException.class, () -> bulkDocumentService.writeZip(job, new ByteArrayOutputStream()));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(61));
+        bulkDocumentService.evictExpired();
+        assertTrue(bulkDocumentService.status(job.getId()).isEmpty());
+    }
+
+    @Test
+    void keepsFinishedJobsForTheRetentionPeriod() throws Exception {
+        BulkJob job = bulkDocumentService.start(List.of(new BulkItem("text", "a")));
+        bulkDocumentService.writeZip(job, new ByteArrayOutputStream());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(59));
+        bulkDocumentService.evictExpired();
+        assertEquals(BulkJob.State.COMPLETED, bulkDocumentService.status(job.getId()).orElseThrow().state());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(2));
+        bulkDocumentService.evictExpired();
+        assertTrue(bulkDocumentService.status(job.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.klinux.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DocumentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private CachedDocument render(DocumentCache cache, String content) throws Exception {
+        return cache.getOrRender(DocumentCache.key("pdf", content), "document.pdf", "application/pdf", out -> {
+            renders.incrementAndGet();
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private static byte[] read(CachedDocument document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.transferTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testKeyDependsOnTypeAndContent() {
+        assertEquals(DocumentCache.key("PDF", "a"), DocumentCache.key("pdf", "a"));
+        assertNotEquals(DocumentCache.key("pdf", "a"), DocumentCache.key("word", "a"));
+        assertNotEquals(DocumentCache.key("pdf", "a"), DocumentCache.key("pdf", "b"));
+    }
+
+    @Test
+    public void testIdenticalRequestsRenderOnce() throws Exception {
+        DocumentCache cache = new DocumentCache(directory, 1024, 1024, 1024);
+
+        assertArrayEquals("hello".getBytes(), read(render(cache, "hello")));
+        assertArrayEquals("hello".getBytes(), read(render(cache, "hello")));
+
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.stats().memoryHits());
+    }
+
+    @Test
+    public void testConcurrentMissesAreSingleFlighted() throws Exception {
+        DocumentCache cache = new DocumentCache(directory, 1024, 1024, 1024);
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            String key = DocumentCache.key("pdf", "slow");
+            Future<CachedDocument> first = executor.submit(() -> cache.getOrRender(key, "document.pdf", "application/pdf", out -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                release.await();
+                out.write(42);
+            }));
+            rendering.await();
+            List<Future<CachedDocument>> others = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                others.add(executor.submit(() -> cache.getOrRender(key, "document.pdf", "application/pdf", out -> {
+                    renders.incrementAndGet();
+                    out.write(42);
+                })));
+            }
+            while (cache.stats().coalesced() < 7) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertArrayEquals(new byte[] { 42 }, read(first.get()));
+            for (Future<CachedDocument> other : others) {
+                assertArrayEquals(new byte[] { 42 }, read(other.get()));
+            }
+            assertEquals(1, renders.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEvictedEntriesAreServedFromDisk() throws Exception {
+        // Room for two 10-byte documents in memory, four on disk
+        DocumentCache cache = new DocumentCache(directory, 20, 20, 40);
+        for (int i = 0; i < 3; i++) {
+            render(cache, "document" + i).close();
+        }
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.memoryEntries());
+        assertEquals(1, stats.diskEntries());
+
+        CachedDocument fromDisk = render(cache, "document0");
+        assertFalse(fromDisk.isInMemory());
+        assertArrayEquals("document0".getBytes(), read(fromDisk));
+        assertEquals(3, renders.get());
+        assertEquals(1, cache.stats().diskHits());
+
+        for (int i = 3; i < 10; i++) {
+            render(cache, "document" + i).close();
+        }
+        assertTrue(cache.stats().diskBytes() <= 40);
+    }
+
+    @Test
+    public void testFailedRenderIsNotCached() throws Exception {
+        DocumentCache cache = new DocumentCache(directory, 1024, 1024, 1024);
+        String key = DocumentCache.key("pdf", "broken");
+
+        assertThrows(IOException.class, () -> cache.getOrRender(key, "document.pdf", "application/pdf", out -> {
+            throw new IOException("render failed");
+        }));
+
+        assertArrayEquals("broken".getBytes(), read(render(cache, "broken")));
+    }
+
+    @Test
+    public void testDiskTierUsesAPrivateDirectory() throws Exception {
+        Path foreign = Files.writeString(directory.resolve("someone-elses.log"), "keep me");
+        DocumentCache cache = new DocumentCache(directory, 10, 10, 1024);
+        DocumentCache other = new DocumentCache(directory, 10, 10, 1024);
+        render(cache, "spilled to disk").close();
+
+        assertTrue(Files.exists(foreign));
+        assertNotEquals(cache.directory(), other.directory());
+        assertEquals(directory, cache.directory().getParent());
+
+        cache.shutdown();
+        other.shutdown();
+        assertFalse(Files.exists(cache.directory()));
+        assertEquals("keep me", Files.readString(foreign));
+    }
+}
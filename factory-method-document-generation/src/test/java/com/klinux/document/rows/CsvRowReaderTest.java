@@ -0,0 +1,38 @@
+package com.klinux.document.rows;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvRowReaderTest {
+
+    @Test
+    public void testPlainAndQuotedFields() throws Exception {
+        RowReader rows = RowReader.open(new StringReader("name,amount\r\n\"Doe, John\",42\n\"say \"\"hi\"\"\",\n\n\"two\nlines\",x"));
+
+        assertTrue(rows instanceof CsvRowReader);
+        assertEquals(List.of("name", "amount"), rows.next());
+        assertEquals(List.of("Doe, John", "42"), rows.next());
+        assertEquals(List.of("say \"hi\"", ""), rows.next());
+        assertEquals(List.of("two\nlines", "x"), rows.next());
+        assertNull(rows.next());
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        assertNull(RowReader.open(new StringReader("")).next());
+    }
+
+    @Test
+    public void testWhitespaceOnlyInput() throws Exception {
+        RowReader rows = RowReader.open(new StringReader(" \n".repeat(10_000)));
+
+        assertTrue(rows instanceof CsvRowReader);
+        assertNull(rows.next());
+    }
+}
@@ -0,0 +1,39 @@
+package com.klinux.document.rows;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonRowReaderTest {
+
+    @Test
+    public void testObjectRowsFollowTheFirstObjectsFields() throws Exception {
+        RowReader rows = RowReader.open(new StringReader("[{\"id\": 1, \"name\": \"a\"}, {\"name\": \"b\", \"extra\": true, \"id\": 2.5}]"));
+
+        assertEquals(List.of("id", "name"), rows.next());
+        assertEquals(List.of(1L, "a"), rows.next());
+        assertEquals(List.of(2.5, "b"), rows.next());
+        assertNull(rows.next());
+    }
+
+    @Test
+    public void testIntegersKeepEveryDigit() throws Exception {
+        RowReader rows = RowReader.open(new StringReader("[[9007199254740993, -9223372036854775808, 123456789012345678901234567890, null]]"));
+
+        assertEquals(Arrays.asList(9007199254740993L, Long.MIN_VALUE, "123456789012345678901234567890", null), rows.next());
+    }
+
+    @Test
+    public void testLeadingWhitespaceLongerThanAnyBuffer() throws Exception {
+        RowReader rows = RowReader.open(new StringReader(" \n".repeat(10_000) + "[[\"x\"]]"));
+
+        assertTrue(rows instanceof JsonRowReader);
+        assertEquals(List.of("x"), rows.next());
+    }
+}
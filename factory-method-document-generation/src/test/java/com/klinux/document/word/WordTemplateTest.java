@@ -0,0 +1,81 @@
+package com.klinux.document.word;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+import org.apache.poi.util.Units;
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFHyperlinkRun;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.junit.jupiter.api.Test;
+
+public class WordTemplateTest {
+
+    // 1x1 transparent PNG
+    private static final byte[] LOGO = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+    private static final String LINK = "https://example.com/contact";
+
+    // A header with a hyperlink and then an image, so the template's relationship ids (link first)
+    // differ from the order in which newDocument() recreates them (pictures first)
+    private static byte[] templateWithHeaderImage() throws Exception {
+        try (XWPFDocument template = new XWPFDocument()) {
+            XWPFHeader header = template.createHeader(HeaderFooterType.DEFAULT);
+            XWPFParagraph paragraph = header.createParagraph();
+            paragraph.createHyperlinkRun(LINK).setText("Contact us");
+            paragraph.createRun().addPicture(new ByteArrayInputStream(LOGO), Document.PICTURE_TYPE_PNG, "logo.png",
+                    Units.toEMU(16), Units.toEMU(16));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            template.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static XWPFDocument roundTrip(XWPFDocument document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.write(out);
+        document.close();
+        return new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void testHeaderKeepsItsImageAndHyperlink() throws Exception {
+        WordTemplate template = WordTemplate.parse(new ByteArrayInputStream(templateWithHeaderImage()));
+
+        try (XWPFDocument document = roundTrip(template.newDocument())) {
+            XWPFHeader header = document.getHeaderFooterPolicy().getDefaultHeader();
+            assertNotNull(header);
+
+            List<XWPFPicture> pictures = header.getParagraphs().get(0).getRuns().get(1).getEmbeddedPictures();
+            assertEquals(1, pictures.size());
+            // Resolved through the header's relationship, so the r:embed id was rewritten correctly
+            assertNotNull(pictures.get(0).getPictureData());
+            assertArrayEquals(LOGO, pictures.get(0).getPictureData().getData());
+
+            XWPFHyperlinkRun link = (XWPFHyperlinkRun) header.getParagraphs().get(0).getRuns().get(0);
+            assertEquals(LINK, header.getPackagePart().getRelationship(link.getHyperlinkId()).getTargetURI().toString());
+        }
+    }
+
+    @Test
+    public void testEveryDocumentGetsItsOwnCopy() throws Exception {
+        WordTemplate template = WordTemplate.parse(new ByteArrayInputStream(templateWithHeaderImage()));
+
+        for (int i = 0; i < 2; i++) {
+            try (XWPFDocument document = roundTrip(template.newDocument())) {
+                assertEquals(1, document.getHeaderFooterPolicy().getDefaultHeader().getAllPictures().size());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.klinux.factory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.document.Document;
+import com.klinux.document.ExcelDocument;
+import com.klinux.exception.UnknownDocumentTypeException;
+
+public class DocumentFactoryRegistryTest {
+
+    private final PDFDocumentFactory pdfFactory = new PDFDocumentFactory();
+    private final ExcelDocumentFactory excelFactory = new ExcelDocumentFactory();
+
+    private final DocumentFactoryRegistry registry = new DocumentFactoryRegistry(List.of(pdfFactory, excelFactory));
+
+    @Test
+    public void testLookupIsCaseInsensitive() {
+        assertSame(pdfFactory, registry.getDocumentFactory("pdf"));
+        assertSame(pdfFactory, registry.getDocumentFactory("PDF"));
+        assertSame(excelFactory, registry.getDocumentFactory("Excel"));
+    }
+
+    @Test
+    public void testUnknownType() {
+        assertThrows(UnknownDocumentTypeException.class, () -> registry.getDocumentFactory("rtf"));
+        assertThrows(UnknownDocumentTypeException.class, () -> registry.getDocumentFactory(""));
+        assertThrows(UnknownDocumentTypeException.class, () -> registry.getDocumentFactory(null));
+    }
+
+    @Test
+    public void testCapabilities() {
+        assertEquals(List.of("pdf", "excel"), List.copyOf(registry.getCapabilities().keySet()));
+        assertFalse(registry.getCapabilities().get("pdf").streamingInput());
+        assertTrue(registry.getCapabilities().get("excel").streamingInput());
+        assertTrue(pdfFactory.getCapabilities().accepts(1_000_000));
+        assertFalse(pdfFactory.getCapabilities().accepts(1_000_001));
+    }
+
+    @Test
+    public void testNewFormatPlugsInWithoutRegistryChanges() {
+        DocumentFactory csvFactory = new DocumentFactory() {
+            @Override
+            public Document createDocument() {
+                return new ExcelDocument();
+            }
+
+            @Override
+            public String getType() {
+                return "csv";
+            }
+
+            @Override
+            public DocumentCapabilities getCapabilities() {
+                return new DocumentCapabilities(true, Long.MAX_VALUE);
+            }
+        };
+        DocumentFactoryRegistry extended = new DocumentFactoryRegistry(List.of(pdfFactory, excelFactory, csvFactory));
+
+        assertSame(csvFactory, extended.getDocumentFactory("CSV"));
+        assertSame(pdfFactory, extended.getDocumentFactory("pdf"));
+    }
+
+    @Test
+    public void testDuplicateTypeIsRejected() {
+        assertThrows(IllegalStateException.class,
+                () -> new DocumentFactoryRegistry(List.of(excelFactory, new ExcelDocumentFactory())));
+    }
+}
@@ -0,0 +1,244 @@
+package com.klinux.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.klinux.exception.JobQueueFullException;
+import com.klinux.exception.UnknownDocumentTypeException;
+import com.klinux.exception.UnknownJobPriorityException;
+import com.klinux.metrics.DocumentMetrics;
+import com.klinux.service.DocumentGenerationService;
+import com.klinux.store.StoredDocument;
+
+public class DocumentJobSchedulerTest {
+
+    private final DocumentGenerationService documentGenerationService = mock(DocumentGenerationService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final List<String> rendered = new CopyOnWriteArrayList<>();
+    private final MutableClock clock = new MutableClock();
+    private DocumentJobScheduler scheduler;
+
+    static final class MutableClock extends Clock {
+
+        volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    // Jobs whose content starts with "block" wait for release; every render is recorded in order
+    private void start(int workers, int batchCapacity) throws Exception {
+        start(workers, batchCapacity, 1);
+    }
+
+    private void start(int workers, int batchCapacity, int reservedWorkers) throws Exception {
+        when(documentGenerationService.generateDocument(anyString(), anyString())).thenAnswer(invocation -> {
+            String content = invocation.getArgument(1);
+            if (content.startsWith("block")) {
+                blockerStarted.countDown();
+                release.await();
+            }
+            rendered.add(content);
+            return new StoredDocument(content, "document.pdf", "application/pdf", 1, Instant.now(), Instant.now());
+        });
+        scheduler = new DocumentJobScheduler(documentGenerationService, new DocumentMetrics(), workers, 128, 4,
+                batchCapacity, 1, reservedWorkers, 4096, Duration.ofMinutes(10), clock);
+    }
+
+    private static void awaitState(DocumentJob job, DocumentJob.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(state, job.getState());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsJobsWhenLaneIsFull() throws Exception {
+        start(1, 2);
+        scheduler.submit("pdf", "block", JobPriority.BATCH);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        scheduler.submit("pdf", "b1", JobPriority.BATCH);
+        scheduler.submit("pdf", "b2", JobPriority.BATCH);
+
+        assertThrows(JobQueueFullException.class, () -> scheduler.submit("pdf", "b3", JobPriority.BATCH));
+        // The other lane is unaffected
+        scheduler.submit("pdf", "i1", JobPriority.INTERACTIVE);
+        assertEquals(2, scheduler.queued(JobPriority.BATCH));
+    }
+
+    @Test
+    void rejectsUnknownTypesWithoutCreatingADocument() throws Exception {
+        start(1, 2);
+        when(documentGenerationService.checkContent("nope", "x"))
+                .thenThrow(new UnknownDocumentTypeException("Unknown document type: nope"));
+
+        assertThrows(UnknownDocumentTypeException.class, () -> scheduler.submit("nope", "x", JobPriority.BATCH));
+        assertEquals(0, scheduler.queued(JobPriority.BATCH));
+        verify(documentGenerationService, never()).createDocument(anyString(), anyString());
+    }
+
+    @Test
+    void finishedJobsDropTheirContentAndExpireOnTheSweep() throws Exception {
+        start(1, 2);
+        DocumentJob job = scheduler.submit("pdf", "hello", JobPriority.INTERACTIVE);
+        awaitState(job, DocumentJob.State.COMPLETED);
+        assertNull(job.getContent());
+        assertNotNull(job.getDocument());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(10));
+        scheduler.evictExpired();
+        assertEquals(1, scheduler.size());
+
+        clock.now = clock.now.plusSeconds(1);
+        scheduler.evictExpired();
+        assertEquals(0, scheduler.size());
+        assertTrue(scheduler.find(job.getId()).isEmpty());
+    }
+
+    @Test
+    void interactiveJobRunsWhileBatchHoldsItsWorkers() throws Exception {
+        start(2, 16);
+        DocumentJob batch = scheduler.submit("pdf", "block-batch", JobPriority.BATCH);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        scheduler.submit("pdf", "block-batch-2", JobPriority.BATCH);
+
+        DocumentJob interactive = scheduler.submit("pdf", "interactive", JobPriority.INTERACTIVE);
+
+        awaitState(interactive, DocumentJob.State.COMPLETED);
+        assertEquals("interactive", interactive.getDocument().id());
+        assertEquals(DocumentJob.State.RUNNING, batch.getState());
+        assertEquals(1, scheduler.queued(JobPriority.BATCH));
+    }
+
+    @Test
+    void batchJobsNeverTakeTheReservedWorkers() throws Exception {
+        start(3, 16, 1);
+        DocumentJob first = scheduler.submit("pdf", "block-1", JobPriority.BATCH);
+        DocumentJob second = scheduler.submit("pdf", "block-2", JobPriority.BATCH);
+        DocumentJob third = scheduler.submit("pdf", "block-3", JobPriority.BATCH);
+        awaitState(first, DocumentJob.State.RUNNING);
+        awaitState(second, DocumentJob.State.RUNNING);
+
+        // The third worker is idle but reserved for interactive jobs
+        Thread.sleep(100);
+        assertEquals(DocumentJob.State.QUEUED, third.getState());
+        DocumentJob interactive = scheduler.submit("pdf", "interactive", JobPriority.INTERACTIVE);
+        awaitState(interactive, DocumentJob.State.COMPLETED);
+        assertEquals(DocumentJob.State.QUEUED, third.getState());
+
+        release.countDown();
+        awaitState(third, DocumentJob.State.COMPLETED);
+    }
+
+    @Test
+    void queuedInteractiveJobsRunAheadOfEarlierBatchJobs() throws Exception {
+        start(1, 16);
+        scheduler.submit("pdf", "block", JobPriority.INTERACTIVE);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        DocumentJob last = null;
+        for (int i = 0; i < 5; i++) {
+            last = scheduler.submit("pdf", "b" + i, JobPriority.BATCH);
+        }
+        for (int i = 0; i < 5; i++) {
+            scheduler.submit("pdf", "i" + i, JobPriority.INTERACTIVE);
+        }
+        release.countDown();
+
+        awaitState(last, DocumentJob.State.COMPLETED);
+        assertEquals(List.of("block", "i0", "i1", "i2", "i3", "i4", "b0", "b1", "b2", "b3", "b4"), rendered);
+    }
+
+    @Test
+    void lanesShareWorkersByWeight() throws Exception {
+        start(1, 128);
+        scheduler.submit("pdf", "block", JobPriority.INTERACTIVE);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        DocumentJob last = null;
+        for (int i = 0; i < 100; i++) {
+            last = scheduler.submit("pdf", "b" + i, JobPriority.BATCH);
+            scheduler.submit("pdf", "i" + i, JobPriority.INTERACTIVE);
+        }
+        release.countDown();
+
+        awaitState(last, DocumentJob.State.COMPLETED);
+        // Weights 4:1 with equal costs: a round is 64 interactive and 16 batch jobs
+        long batch = rendered.subList(1, 81).stream().filter(content -> content.startsWith("b")).count();
+        assertEquals(16, batch);
+    }
+
+    @Test
+    void largeJobsUseMoreOfTheLaneCredit() throws Exception {
+        start(1, 128);
+        scheduler.submit("pdf", "block", JobPriority.INTERACTIVE);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        DocumentJob last = null;
+        for (int i = 0; i < 100; i++) {
+            // Cost 8 each: two fit in a batch turn of 16 credits
+            last = scheduler.submit("pdf", "b" + i + "x".repeat(7 * 4096), JobPriority.BATCH);
+            scheduler.submit("pdf", "i" + i, JobPriority.INTERACTIVE);
+        }
+        release.countDown();
+
+        awaitState(last, DocumentJob.State.COMPLETED);
+        long batch = rendered.subList(1, 101).stream().filter(content -> content.startsWith("b")).count();
+        assertTrue(batch <= 4, "batch jobs in the first 100 renders: " + batch);
+    }
+
+    @Test
+    void parsesPriorityNamesIgnoringCase() {
+        assertEquals(JobPriority.BATCH, JobPriority.fromName("Batch"));
+        assertEquals(JobPriority.INTERACTIVE, JobPriority.fromName("interactive"));
+        assertThrows(UnknownJobPriorityException.class, () -> JobPriority.fromName("urgent"));
+    }
+
+    @Test
+    void estimatesCostFromContentLength() throws Exception {
+        start(1, 16);
+        assertEquals(1, scheduler.estimateCost("short"));
+        assertEquals(4, scheduler.estimateCost("x".repeat(3 * 4096)));
+        assertEquals(1024, scheduler.estimateCost("x".repeat(5000 * 4096)));
+    }
+}
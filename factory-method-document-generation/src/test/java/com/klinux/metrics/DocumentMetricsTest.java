@@ -0,0 +1,98 @@
+package com.klinux.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.document.Document;
+
+public class DocumentMetricsTest {
+
+    private final DocumentMetrics documentMetrics = new DocumentMetrics();
+
+    // Writes 1 KiB per character of content; fails on "fail"; remembers which write method was used
+    private static class KilobyteDocument implements Document {
+
+        boolean readerUsed;
+
+        @Override
+        public void write(String content, OutputStream out) throws Exception {
+            if (content.equals("fail")) {
+                throw new IllegalStateException("Broken template");
+            }
+            for (int i = 0; i < content.length(); i++) {
+                out.write(new byte[1024]);
+            }
+        }
+
+        @Override
+        public void write(Reader content, OutputStream out) throws Exception {
+            readerUsed = true;
+            Document.super.write(content, out);
+        }
+
+        @Override
+        public String getFileName() {
+            return "document.bin";
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/octet-stream";
+        }
+    }
+
+    @Test
+    void recordsRendersBytesAndAllocation() throws Exception {
+        Document document = documentMetrics.instrument("pdf", new KilobyteDocument());
+        document.write("abc", new ByteArrayOutputStream());
+        document.write("de", OutputStream.nullOutputStream());
+
+        FormatStats stats = documentMetrics.snapshot().get(0);
+        assertEquals("pdf", stats.type());
+        assertEquals(2, stats.renders());
+        assertEquals(0, stats.failed());
+        assertEquals(5 * 1024, stats.bytesOut());
+        // At least the five 1 KiB arrays
+        assertTrue(stats.allocatedBytes() >= 5 * 1024, "allocated " + stats.allocatedBytes());
+        assertTrue(stats.maxMillis() > 0);
+    }
+
+    @Test
+    void countsFailuresAndRethrows() {
+        Document document = documentMetrics.instrument("word", new KilobyteDocument());
+
+        assertThrows(IllegalStateException.class, () -> document.write("fail", OutputStream.nullOutputStream()));
+        FormatStats stats = documentMetrics.snapshot().get(0);
+        assertEquals(1, stats.renders());
+        assertEquals(1, stats.failed());
+    }
+
+    @Test
+    void forwardsStreamingWrites() throws Exception {
+        KilobyteDocument delegate = new KilobyteDocument();
+        documentMetrics.instrument("excel", delegate).write(new StringReader("xy"), OutputStream.nullOutputStream());
+
+        assertTrue(delegate.readerUsed);
+        assertEquals(2 * 1024, documentMetrics.snapshot().get(0).bytesOut());
+    }
+
+    @Test
+    void recordsQueueWaitUnderCanonicalType() {
+        documentMetrics.recordQueueWait("PDF", "batch", TimeUnit.MILLISECONDS.toNanos(3));
+        documentMetrics.recordQueueWait("pdf", "bulk", TimeUnit.MILLISECONDS.toNanos(5));
+
+        FormatStats stats = documentMetrics.snapshot().get(0);
+        assertEquals("pdf", stats.type());
+        assertEquals(2, stats.queueWaitSamples());
+        assertTrue(stats.queueWaitMaxMillis() >= 5);
+    }
+}
@@ -0,0 +1,52 @@
+package com.klinux.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// LatencyHistogram is copied from factory-method-payment (there is no shared library between the
+// modules); this fails as soon as the two copies differ in anything but their package and the comment
+// naming the other copy. Skipped when the module is built outside the full repository.
+public class LatencyHistogramCopyTest {
+
+    private static final Path PAYMENT_COPY =
+            Path.of("../factory-method-payment/src/main/java/com/klinux/payment/metrics/LatencyHistogram.java");
+    private static final Path THIS_COPY = Path.of("src/main/java/com/klinux/metrics/LatencyHistogram.java");
+
+    @Test
+    public void testCopiesAreIdentical() throws IOException {
+        assumeTrue(Files.exists(PAYMENT_COPY), "factory-method-payment is not checked out next to this module");
+
+        assertEquals(normalize(PAYMENT_COPY), normalize(THIS_COPY));
+    }
+
+    // Drops the package declaration and the two comment lines that point at the other copy
+    private static List<String> normalize(Path source) throws IOException {
+        List<String> lines = new ArrayList<>();
+        boolean skipNext = false;
+        for (String line : Files.readAllLines(source)) {
+            String trimmed = line.trim();
+            if (skipNext && trimmed.startsWith("// in factory-method-")) {
+                skipNext = false;
+                continue;
+            }
+            skipNext = false;
+            if (trimmed.startsWith("package ")) {
+                continue;
+            }
+            if (trimmed.startsWith("// Deliberately the same code as ")) {
+                skipNext = true;
+                continue;
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+}
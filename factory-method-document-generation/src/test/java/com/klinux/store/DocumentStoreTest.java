@@ -0,0 +1,187 @@
+package com.klinux.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DocumentStoreTest {
+
+    @TempDir
+    Path root;
+
+    // Long.MAX_VALUE in base 36: no process has this id
+    private static final String DEAD_PROCESS = Long.toString(Long.MAX_VALUE, 36);
+
+    private final MutableClock clock = new MutableClock();
+    private DocumentStore store;
+
+    static final class MutableClock extends Clock {
+
+        volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void testStoresBytesLargerThanTheBuffer() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(16, 2), clock);
+        byte[] content = "0123456789".repeat(100).getBytes(StandardCharsets.US_ASCII);
+
+        StoredDocument document = store.store("document.pdf", "application/pdf", out -> out.write(content));
+
+        assertEquals(content.length, document.size());
+        assertArrayEquals(content, Files.readAllBytes(store.findFile(document.id()).orElseThrow().path()));
+        assertTrue(store.findFile(document.id()).orElseThrow().path().toString().endsWith(".pdf"));
+    }
+
+    @Test
+    public void testConcurrentStoresGetDistinctFiles() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StoredDocument>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                byte[] content = ("document " + i).getBytes(StandardCharsets.US_ASCII);
+                futures.add(executor.submit(() -> store.store("document.pdf", "application/pdf", out -> out.write(content))));
+            }
+            Set<String> ids = new HashSet<>();
+            for (int i = 0; i < futures.size(); i++) {
+                StoredDocument document = futures.get(i).get();
+                ids.add(document.id());
+                assertEquals("document " + i, Files.readString(store.findFile(document.id()).orElseThrow().path()));
+            }
+            assertEquals(200, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedWriteLeavesNoFile() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+
+        assertThrows(IOException.class, () -> store.store("document.pdf", "application/pdf", out -> {
+            out.write(1);
+            throw new IOException("render failed");
+        }));
+
+        assertEquals(0, store.size());
+        try (var files = Files.list(root)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testExpiredDocumentsAreDeleted() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        StoredDocument document = store.store("document.pdf", "application/pdf", out -> out.write(1));
+        Path path = store.findFile(document.id()).orElseThrow().path();
+
+        clock.now = clock.now.plus(Duration.ofMinutes(5));
+        store.evictExpired();
+        assertTrue(Files.exists(path));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(6));
+        store.evictExpired();
+        assertFalse(Files.exists(path));
+        assertTrue(store.find(document.id()).isEmpty());
+    }
+
+    @Test
+    public void testSweepDeletesOnlyLeftoverStoreFiles() throws Exception {
+        FileTime old = FileTime.from(clock.now.minus(Duration.ofMinutes(20)));
+        Path leftover = Files.write(root.resolve(DEAD_PROCESS + "-k3f9a-1f.pdf"), new byte[] { 1 });
+        Path notes = Files.write(root.resolve("notes.txt"), new byte[] { 1 });
+        Path report = Files.write(root.resolve("report.final.pdf"), new byte[] { 1 });
+        for (Path file : List.of(leftover, notes, report)) {
+            Files.setLastModifiedTime(file, old);
+        }
+
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        store.evictExpired();
+
+        assertFalse(Files.exists(leftover));
+        assertTrue(Files.exists(notes));
+        assertTrue(Files.exists(report));
+    }
+
+    @Test
+    public void testInstancesSharingARootKeepEachOthersFiles() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        DocumentStore other = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        try {
+            StoredDocument mine = store.store("document.pdf", "application/pdf", out -> out.write(1));
+            StoredDocument theirs = other.store("document.pdf", "application/pdf", out -> out.write(2));
+            assertNotEquals(mine.id(), theirs.id());
+
+            // Old enough to be a leftover, but its owner is still running
+            Path theirFile = other.findFile(theirs.id()).orElseThrow().path();
+            Files.setLastModifiedTime(theirFile, FileTime.from(clock.now.minus(Duration.ofMinutes(20))));
+            store.evictExpired();
+
+            assertTrue(Files.exists(theirFile));
+            assertEquals(2, Files.readAllBytes(theirFile)[0]);
+            assertTrue(Files.exists(store.findFile(mine.id()).orElseThrow().path()));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testFindFileReturnsDocumentAndPath() throws Exception {
+        store = new DocumentStore(root, Duration.ofMinutes(10), new BufferPool(64, 4), clock);
+        StoredDocument document = store.store("document.pdf", "application/pdf", out -> out.write(1));
+
+        StoredFile stored = store.findFile(document.id()).orElseThrow();
+        assertEquals(document, stored.document());
+        assertEquals(1, Files.size(stored.path()));
+
+        store.delete(document.id());
+        assertTrue(store.findFile(document.id()).isEmpty());
+    }
+}
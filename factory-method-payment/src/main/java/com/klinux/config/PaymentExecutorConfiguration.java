@@ -0,0 +1,57 @@
+package com.klinux.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Executor that runs processor calls off the Tomcat request threads.
+// Uses a virtual thread per call when the JVM has them (Java 21+), otherwise a dedicated platform pool with
+// a queue of at most payment.async.queue-capacity calls; submitting to a full queue is rejected, and
+// ProcessorBulkhead turns that into a REJECTED payment. Keep each processor's max-concurrency below
+// pool-size so one slow gateway cannot hold every pool thread.
+@Configuration
+public class PaymentExecutorConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService paymentExecutor(
+            @Value("${payment.async.virtual-threads:true}") boolean virtualThreads,
+            @Value("${payment.async.pool-size:200}") int poolSize,
+            @Value("${payment.async.queue-capacity:1000}") int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService executor = virtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("payment-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Looked up reflectively so the module still compiles and runs on Java 17
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,10 +1,25 @@
 package com.klinux.controller;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.klinux.exception.PaymentFailedException;
+import com.klinux.payment.batch.PaymentBatcher;
+import com.klinux.payment.idempotency.IdempotencyMetrics;
+import com.klinux.payment.metrics.PaymentMetrics;
+import com.klinux.payment.metrics.PaymentMetricsSnapshot;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+import com.klinux.service.IdempotentPaymentService;
 import com.klinux.service.PaymentService;
 
 @RestController
@@ -13,9 +28,53 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private PaymentBatcher paymentBatcher;
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private PaymentMetrics paymentMetrics;
+
+    // Returning a future frees the Tomcat thread while the processor call runs (payment.async.enabled=true).
+    // Retries sent with the same Idempotency-Key header are answered from the first attempt.
+    // A timed-out call answers 202: the payment may or may not have been charged.
     @GetMapping("/processPayment")
-    public String processPayment(@RequestParam String paymentMethod, @RequestParam double amount) {
-        paymentService.processPayment(paymentMethod, amount);
-        return "Payment processed via " + paymentMethod;
+    public CompletableFuture<ResponseEntity<String>> processPayment(@RequestParam String paymentMethod,
+            @RequestParam double amount,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotentPaymentService.processPayment(idempotencyKey, paymentMethod, amount).thenApply(result -> {
+            if (result.status() == PaymentResult.Status.FAILED || result.status() == PaymentResult.Status.REJECTED) {
+                throw new PaymentFailedException(result.message());
+            }
+            if (result.status() == PaymentResult.Status.UNKNOWN) {
+                return ResponseEntity.accepted().body("Payment outcome unknown: " + result.message());
+            }
+            return ResponseEntity.ok("Payment processed via " + paymentMethod);
+        });
+    }
+
+    // Many payments in one request, one result per payment in the same order
+    @PostMapping("/processPayments")
+    public List<PaymentResult> processPayments(@RequestBody List<PaymentRequest> payments) {
+        return paymentService.processPayments(payments);
+    }
+
+    // Single payment that joins the current batching window instead of calling the processor directly
+    @GetMapping("/submitPayment")
+    public CompletableFuture<PaymentResult> submitPayment(@RequestParam String paymentMethod, @RequestParam double amount) {
+        return paymentBatcher.submit(new PaymentRequest(paymentMethod, amount));
+    }
+
+    // Lookup counters plus per-processor outcome counters and p50/p99/p999 call latency
+    @GetMapping("/metrics/payments")
+    public PaymentMetricsSnapshot paymentMetrics() {
+        return paymentMetrics.snapshot();
+    }
+
+    @GetMapping("/metrics/idempotency")
+    public IdempotencyMetrics idempotencyMetrics() {
+        return idempotentPaymentService.metrics();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.klinux.payment;
+
+import java.util.List;
+
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+// A processor that can settle many payments in one gateway call
+public interface BatchPaymentProcessor extends PaymentProcessor {
+
+    // Results are returned in the same order as the payments
+    List<PaymentResult> processBatch(List<PaymentRequest> payments);
+}
@@ -0,0 +1,18 @@
+package com.klinux.payment;
+
+// Built-in payment methods; the key is what clients send as paymentMethod (matched case-insensitively)
+public enum PaymentMethod {
+    CREDIT_CARD("creditcard"),
+    PAYPAL("paypal"),
+    STRIPE("stripe");
+
+    private final String key;
+
+    PaymentMethod(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
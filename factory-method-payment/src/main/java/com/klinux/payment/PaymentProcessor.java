@@ -2,4 +2,7 @@ package com.klinux.payment;
 
 public interface PaymentProcessor {
     void processPayment(double amount);
+
+    // Key clients use to select this processor; must be unique across processors
+    String getPaymentMethod();
 }
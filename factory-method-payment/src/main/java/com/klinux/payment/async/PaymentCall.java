@@ -0,0 +1,15 @@
+package com.klinux.payment.async;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.klinux.payment.model.PaymentResult;
+
+// A started processor call. result is what the client gets: it completes with an UNKNOWN result when the
+// call times out. outcome completes only when the processor call has really ended, with its final result.
+public record PaymentCall(CompletableFuture<PaymentResult> result, CompletableFuture<PaymentResult> outcome) {
+
+    public static PaymentCall completed(PaymentResult result) {
+        CompletableFuture<PaymentResult> done = CompletableFuture.completedFuture(result);
+        return new PaymentCall(done, done);
+    }
+}
@@ -0,0 +1,137 @@
+package com.klinux.payment.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.metrics.PaymentMetrics;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+// Runs processor calls on the payment executor, with a separate concurrency limit per processor
+// (payment.async.processor.<method>.max-concurrency, default payment.async.max-concurrency) and a
+// timeout. A slow gateway can only tie up its own permits, not the other processors' capacity.
+// - The permit is taken before the call is handed to the executor, without waiting: a payment that finds
+//   no free permit, or a full executor queue, is REJECTED at once without a call. A task waiting in the
+//   executor's queue therefore always holds a permit, and queued tasks per processor never exceed its limit.
+// - The timeout (payment.async.timeout-ms) runs from submission, so time queued for a thread counts.
+//   A call still queued at the timeout never runs. A call that has started is interrupted and the client
+//   gets an UNKNOWN result, not FAILED: the gateway may have charged the payment before the interrupt.
+//   PaymentCall.outcome() carries the real result once the call has ended, and the permit is only
+//   released then.
+@Component
+public class ProcessorBulkhead {
+
+    private final ExecutorService executor;
+    private final Environment environment;
+    private final int defaultMaxConcurrency;
+    private final long timeoutMillis;
+    private final PaymentMetrics paymentMetrics;
+    private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public ProcessorBulkhead(@Qualifier("paymentExecutor") ExecutorService executor, Environment environment,
+            @Value("${payment.async.max-concurrency:64}") int defaultMaxConcurrency,
+            @Value("${payment.async.timeout-ms:5000}") long timeoutMillis, PaymentMetrics paymentMetrics) {
+        this.executor = executor;
+        this.environment = environment;
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+        this.timeoutMillis = timeoutMillis;
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    public CompletableFuture<PaymentResult> submit(PaymentProcessor processor, PaymentRequest payment) {
+        return start(processor, payment).result();
+    }
+
+    public PaymentCall start(PaymentProcessor processor, PaymentRequest payment) {
+        Semaphore semaphore = permits.computeIfAbsent(processor.getPaymentMethod(), this::newLimit);
+        if (!semaphore.tryAcquire()) {
+            return PaymentCall.completed(PaymentResult.rejected(payment,
+                    "Too many payments in flight for " + processor.getPaymentMethod()));
+        }
+        PaymentCall call = new PaymentCall(new CompletableFuture<>(), new CompletableFuture<>());
+        // Set by whichever runs first: the task (the call goes ahead) or the timeout (the call never runs)
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicReference<Future<?>> task = new AtomicReference<>();
+        try {
+            task.set(executor.submit(() -> {
+                if (started.compareAndSet(false, true)) {
+                    call(processor, semaphore, payment, call);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            semaphore.release();
+            return PaymentCall.completed(PaymentResult.rejected(payment, "Payment executor is full"));
+        }
+        startTimeout(payment, semaphore, call, started, task);
+        return call;
+    }
+
+    private Semaphore newLimit(String paymentMethod) {
+        int limit = environment.getProperty("payment.async.processor." + paymentMethod + ".max-concurrency",
+                Integer.class, defaultMaxConcurrency);
+        return new Semaphore(limit);
+    }
+
+    private void call(PaymentProcessor processor, Semaphore semaphore, PaymentRequest payment, PaymentCall call) {
+        PaymentResult result;
+        try {
+            result = process(processor, payment, call);
+        } finally {
+            semaphore.release();
+        }
+        // No effect on result() after a timeout; the client already has the UNKNOWN result
+        call.result().complete(result);
+        call.outcome().complete(result);
+    }
+
+    private void startTimeout(PaymentRequest payment, Semaphore semaphore, PaymentCall call, AtomicBoolean started,
+            AtomicReference<Future<?>> task) {
+        PaymentResult timedOut = PaymentResult.unknown(payment, "Timed out after " + timeoutMillis
+                + " ms; the payment may still have been charged");
+        call.result().completeOnTimeout(timedOut, timeoutMillis, TimeUnit.MILLISECONDS).thenAccept(result -> {
+            if (result != timedOut) {
+                return;
+            }
+            if (started.compareAndSet(false, true)) {
+                // Still queued: the processor was never called, so the payment was certainly not charged
+                task.get().cancel(false);
+                semaphore.release();
+                call.outcome().complete(PaymentResult.rejected(payment, "Timed out before the call started"));
+            } else {
+                task.get().cancel(true);
+            }
+        });
+    }
+
+    private PaymentResult process(PaymentProcessor processor, PaymentRequest payment, PaymentCall call) {
+        try {
+            paymentMetrics.process(processor, payment.amount());
+            return PaymentResult.processed(payment, "Processed via " + processor.getPaymentMethod());
+        } catch (RuntimeException e) {
+            if (call.result().isDone()) {
+                // Failed after the timeout, most likely because of the interrupt: whether it was charged is unknown
+                return PaymentResult.unknown(payment, "Interrupted after timeout: " + e.getMessage());
+            }
+            return PaymentResult.failed(payment, e.getMessage());
+        }
+    }
+
+    // Permits currently free for a payment method, or the configured limit if it has not been used yet
+    public int availablePermits(String paymentMethod) {
+        return permits.computeIfAbsent(paymentMethod, this::newLimit).availablePermits();
+    }
+}
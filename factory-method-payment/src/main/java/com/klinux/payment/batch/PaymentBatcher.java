@@ -0,0 +1,118 @@
+package com.klinux.payment.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+import com.klinux.service.PaymentService;
+
+// Collects payments submitted one at a time and flushes them to PaymentService.processPayments
+// when the window reaches max-size or the oldest payment has waited max-delay, whichever comes first.
+// The scheduler thread only starts the max-delay timers; the processPayments call itself runs on the
+// payment executor, so a slow batch does not hold back the next window's timer.
+@Component
+public class PaymentBatcher implements DisposableBean {
+
+    private final PaymentService paymentService;
+    private final ExecutorService executor;
+    private final int maxSize;
+    private final long maxDelayMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this. window counts flushed windows so that a timer which fires after its window was
+    // already flushed on size cannot flush the next window early.
+    private List<PaymentRequest> pending = new ArrayList<>();
+    private List<CompletableFuture<PaymentResult>> waiting = new ArrayList<>();
+    private ScheduledFuture<?> timer;
+    private long window;
+
+    public PaymentBatcher(PaymentService paymentService,
+            @Qualifier("paymentExecutor") ExecutorService executor,
+            @Value("${payment.batch.max-size:500}") int maxSize,
+            @Value("${payment.batch.max-delay-ms:10}") long maxDelayMillis) {
+        this.paymentService = paymentService;
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public CompletableFuture<PaymentResult> submit(PaymentRequest payment) {
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        synchronized (this) {
+            pending.add(payment);
+            waiting.add(result);
+            if (pending.size() >= maxSize) {
+                flush();
+            } else if (pending.size() == 1) {
+                long current = window;
+                timer = scheduler.schedule(() -> flushWindow(current), maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void flushWindow(long expected) {
+        if (window == expected) {
+            flush();
+        }
+    }
+
+    // Called with the lock held
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PaymentRequest> payments = pending;
+        List<CompletableFuture<PaymentResult>> futures = waiting;
+        pending = new ArrayList<>();
+        waiting = new ArrayList<>();
+        window++;
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        try {
+            executor.execute(() -> process(payments, futures));
+        } catch (RejectedExecutionException e) {
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(PaymentResult.rejected(payments.get(i), "Payment executor is full"));
+            }
+        }
+    }
+
+    private void process(List<PaymentRequest> payments, List<CompletableFuture<PaymentResult>> futures) {
+        try {
+            List<PaymentResult> results = paymentService.processPayments(payments);
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            flush();
+        }
+    }
+}
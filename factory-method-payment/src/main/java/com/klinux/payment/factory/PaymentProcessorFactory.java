@@ -1,35 +1,90 @@
 package com.klinux.payment.factory;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
+import com.klinux.payment.PaymentMethod;
 import com.klinux.payment.PaymentProcessor;
-import com.klinux.payment.processor.CreditCardProcessor;
-import com.klinux.payment.processor.PayPalProcessor;
-import com.klinux.payment.processor.StripeProcessor;
 
+// Registry of every PaymentProcessor bean, keyed by PaymentProcessor.getPaymentMethod().
+// A new processor only needs to be a @Component with its own key; nothing here changes.
+// Lookups hash the key case-insensitively into an open-addressing table, so no lower-cased
+// copy of the request string is allocated.
 @Component
 public class PaymentProcessorFactory {
 
-    @Autowired
-    private CreditCardProcessor creditCardProcessor;
+    private final String[] keys;
+    private final PaymentProcessor[] processors;
+    private final int mask;
+
+    // Indexed by PaymentMethod.ordinal() for the built-in methods
+    private final PaymentProcessor[] byMethod = new PaymentProcessor[PaymentMethod.values().length];
 
-    @Autowired
-    private PayPalProcessor payPalProcessor;
+    public PaymentProcessorFactory(List<PaymentProcessor> paymentProcessors) {
+        int capacity = Integer.highestOneBit(Math.max(2, paymentProcessors.size() * 2) - 1) << 1;
+        this.keys = new String[capacity];
+        this.processors = new PaymentProcessor[capacity];
+        this.mask = capacity - 1;
+
+        for (PaymentProcessor processor : paymentProcessors) {
+            String key = processor.getPaymentMethod();
+            if (key == null || key.isEmpty()) {
+                throw new IllegalStateException("Payment processor " + processor.getClass().getName() + " has no payment method");
+            }
+            int slot = caseInsensitiveHash(key) & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equalsIgnoreCase(key)) {
+                    throw new IllegalStateException("Duplicate payment method '" + key + "': "
+                            + processors[slot].getClass().getName() + " and " + processor.getClass().getName());
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            processors[slot] = processor;
+        }
 
-    @Autowired
-    private StripeProcessor stripeProcessor;
+        for (PaymentMethod method : PaymentMethod.values()) {
+            byMethod[method.ordinal()] = find(method.getKey());
+        }
+    }
 
     public PaymentProcessor getPaymentProcessor(String paymentMethod) {
-        switch (paymentMethod.toLowerCase()) {
-            case "creditcard":
-                return creditCardProcessor;
-            case "paypal":
-                return payPalProcessor;
-            case "stripe":
-                return stripeProcessor;
-            default:
-                throw new IllegalArgumentException("Unknown payment method: " + paymentMethod);
+        if (paymentMethod == null || paymentMethod.isBlank()) {
+            throw new IllegalArgumentException("Missing payment method");
+        }
+        PaymentProcessor processor = find(paymentMethod);
+        if (processor == null) {
+            throw new IllegalArgumentException("Unknown payment method: " + paymentMethod);
+        }
+        return processor;
+    }
+
+    public PaymentProcessor getPaymentProcessor(PaymentMethod paymentMethod) {
+        PaymentProcessor processor = byMethod[paymentMethod.ordinal()];
+        if (processor == null) {
+            throw new IllegalArgumentException("No processor registered for payment method: " + paymentMethod);
+        }
+        return processor;
+    }
+
+    private PaymentProcessor find(String paymentMethod) {
+        int slot = caseInsensitiveHash(paymentMethod) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equalsIgnoreCase(paymentMethod)) {
+                return processors[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static int caseInsensitiveHash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(value.charAt(i));
         }
+        return hash ^ (hash >>> 16);
     }
-}
\ No newline at end of file
+}
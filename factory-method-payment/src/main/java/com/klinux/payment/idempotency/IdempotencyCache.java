@@ -0,0 +1,202 @@
+package com.klinux.payment.idempotency;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.exception.IdempotencyKeyConflictException;
+import com.klinux.payment.async.PaymentCall;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+// Remembers the payment started for each client idempotency key. The future is stored as soon as the
+// first request arrives, so concurrent duplicates and later retries share one processor call.
+// Keys are spread over independently locked stripes; each stripe keeps entries in creation order and
+// drops the oldest when it is over its share of max-entries or older than the TTL.
+// - An entry whose processor call has not ended is never dropped, whatever its age or the stripe size:
+//   a duplicate must keep finding it. A stripe can go over its share while many calls are in flight.
+// - Only payments that never reached the processor (unknown method, REJECTED) are forgotten so the client
+//   can retry them. A FAILED payment keeps its result, and an UNKNOWN (timed-out) one is answered with
+//   the call's real outcome once the call has ended, or forgotten if it timed out before the call started.
+@Component
+public class IdempotencyCache {
+
+    // Rough per-entry heap cost: map node, entry, future, result and request objects
+    private static final long ENTRY_OVERHEAD_BYTES = 240;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int maxEntriesPerStripe;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder size = new LongAdder();
+    private final LongAdder keyChars = new LongAdder();
+
+    private static final class Entry {
+        final PaymentRequest payment;
+        final long createdNanos;
+        volatile CompletableFuture<PaymentResult> result;
+        volatile boolean inFlight = true;
+
+        Entry(PaymentRequest payment, CompletableFuture<PaymentResult> result, long createdNanos) {
+            this.payment = payment;
+            this.result = result;
+            this.createdNanos = createdNanos;
+        }
+
+        // Same method (matched case-insensitively, like the processor registry) and amount
+        boolean isFor(PaymentRequest other) {
+            return Double.compare(payment.amount(), other.amount()) == 0
+                    && payment.paymentMethod() != null && payment.paymentMethod().equalsIgnoreCase(other.paymentMethod());
+        }
+    }
+
+    private static final class Stripe {
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    @Autowired
+    public IdempotencyCache(@Value("${payment.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${payment.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this(maxEntries, TimeUnit.SECONDS.toNanos(ttlSeconds), Runtime.getRuntime().availableProcessors() * 4,
+                System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, long ttlNanos, int stripeCount, LongSupplier clock) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / count);
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    // Returns the payment already started for this key, or starts it with call.
+    // Reusing a key for a different payment is rejected.
+    public CompletableFuture<PaymentResult> getOrStart(String key, PaymentRequest payment,
+            Supplier<PaymentCall> call) {
+        Stripe stripe = stripes[spread(key.hashCode()) & stripeMask];
+        CompletableFuture<PaymentResult> result;
+        Entry entry;
+        synchronized (stripe) {
+            long now = clock.getAsLong();
+            Entry existing = stripe.entries.get(key);
+            if (existing != null && (existing.inFlight || now - existing.createdNanos < ttlNanos)) {
+                if (!existing.isFor(payment)) {
+                    throw new IdempotencyKeyConflictException("Idempotency key " + key + " was used for a different payment");
+                }
+                hits.increment();
+                return existing.result;
+            }
+            if (existing != null) {
+                removeLocked(stripe, key);
+                evictions.increment();
+            }
+            misses.increment();
+            result = new CompletableFuture<>();
+            entry = new Entry(payment, result, now);
+            stripe.entries.put(key, entry);
+            size.increment();
+            keyChars.add(key.length());
+            evictLocked(stripe, now);
+        }
+
+        // The processor call happens outside the stripe lock
+        PaymentCall started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            // Thrown before the processor was called (unknown payment method)
+            forget(stripe, key, entry);
+            result.completeExceptionally(e);
+            throw e;
+        }
+        started.result().whenComplete((value, error) -> {
+            if (value != null && value.status() == PaymentResult.Status.REJECTED) {
+                entry.inFlight = false;
+                forget(stripe, key, entry);
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        started.outcome().whenComplete((value, error) -> {
+            // After an UNKNOWN result, retries get what the call finally did
+            if (value != null && value.status() != PaymentResult.Status.REJECTED && result.isDone()
+                    && result.join().status() == PaymentResult.Status.UNKNOWN) {
+                entry.result = CompletableFuture.completedFuture(value);
+            }
+            entry.inFlight = false;
+            if (value != null && value.status() == PaymentResult.Status.REJECTED) {
+                // Timed out while still queued: the processor was never called, so a retry may go ahead
+                forget(stripe, key, entry);
+            }
+        });
+        return result;
+    }
+
+    // Expired entries sit at the head of the creation-ordered map, so only the head needs checking;
+    // entries still in flight are stepped over
+    private void evictLocked(Stripe stripe, long now) {
+        Iterator<Map.Entry<String, Entry>> oldest = stripe.entries.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Entry> head = oldest.next();
+            boolean expired = now - head.getValue().createdNanos >= ttlNanos;
+            if (!expired && stripe.entries.size() <= maxEntriesPerStripe) {
+                return;
+            }
+            if (head.getValue().inFlight) {
+                continue;
+            }
+            oldest.remove();
+            size.decrement();
+            keyChars.add(-head.getKey().length());
+            evictions.increment();
+        }
+    }
+
+    private void forget(Stripe stripe, String key, Entry entry) {
+        synchronized (stripe) {
+            if (stripe.entries.get(key) == entry) {
+                removeLocked(stripe, key);
+            }
+        }
+    }
+
+    private void removeLocked(Stripe stripe, String key) {
+        stripe.entries.remove(key);
+        size.decrement();
+        keyChars.add(-key.length());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public IdempotencyMetrics metrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        long entries = size.sum();
+        return new IdempotencyMetrics(hitCount, missCount, total == 0 ? 0.0 : (double) hitCount / total,
+                evictions.sum(), entries, entries * ENTRY_OVERHEAD_BYTES + keyChars.sum());
+    }
+}
@@ -0,0 +1,6 @@
+package com.klinux.payment.idempotency;
+
+// Snapshot of the idempotency cache counters; estimatedBytes is an approximation of the heap held by entries
+public record IdempotencyMetrics(long hits, long misses, double hitRate, long evictions, long size,
+        long estimatedBytes) {
+}
@@ -0,0 +1,94 @@
+package com.klinux.payment.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear latency histogram in nanoseconds, in the style of HdrHistogram:
+// every power of two is split into 16 linear sub-buckets, so a recorded value is
+// reported within 1/16 (~6%) of its real value. Recording is one array index
+// computation and one atomic increment; nothing is allocated.
+// Deliberately the same code as com.klinux.metrics.LatencyHistogram
+// in factory-method-document-generation: each module builds on its own and there
+// is no shared library to put it in, so a fix to one belongs in both
+// (LatencyHistogramCopyTest in factory-method-document-generation fails when they differ).
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.getAndIncrement(indexOf(nanos));
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total);
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) - SUB_BUCKETS);
+    }
+
+    // Largest value that falls into the bucket, as HdrHistogram's highestEquivalentValue
+    static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // Point-in-time copy of the counts; percentiles are computed from the copy
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+
+        private Snapshot(long[] counts, long totalCount) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+        }
+
+        public long totalCount() {
+            return totalCount;
+        }
+
+        // Value at the given percentile (0-100), or 0 when nothing was recorded
+        public long valueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueOf(i);
+                }
+            }
+            return maxValue();
+        }
+
+        public long maxValue() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.klinux.payment.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.klinux.payment.BatchPaymentProcessor;
+import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+// Instrumentation around the factory lookup and the processor calls, read by GET /metrics/payments.
+// Counters see every call. System.nanoTime() is the expensive part (20-40 ns per read depending on
+// the clock source), so single payments are timed one call in latencySampleEvery; batch calls are
+// always timed.
+@Component
+public class PaymentMetrics {
+
+    private final int latencySampleEvery;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder unknownMethods = new LongAdder();
+    private final ConcurrentMap<String, ProcessorMetrics> processors = new ConcurrentHashMap<>();
+
+    // Times every call
+    public PaymentMetrics() {
+        this(1);
+    }
+
+    @Autowired
+    public PaymentMetrics(@Value("${payment.metrics.latency-sample-every:4}") int latencySampleEvery) {
+        this.latencySampleEvery = Math.max(1, latencySampleEvery);
+    }
+
+    public void recordLookup() {
+        lookups.increment();
+    }
+
+    public void recordUnknownMethod() {
+        lookups.increment();
+        unknownMethods.increment();
+    }
+
+    public ProcessorMetrics forMethod(String paymentMethod) {
+        ProcessorMetrics metrics = processors.get(paymentMethod);
+        return metrics != null ? metrics : processors.computeIfAbsent(paymentMethod, ProcessorMetrics::new);
+    }
+
+    // Times processor.processPayment; exceptions are counted as failures and rethrown
+    public void process(PaymentProcessor processor, double amount) {
+        ProcessorMetrics metrics = forMethod(processor.getPaymentMethod());
+        boolean timed = latencySampleEvery == 1 || ThreadLocalRandom.current().nextInt(latencySampleEvery) == 0;
+        long start = timed ? System.nanoTime() : 0;
+        boolean success = false;
+        try {
+            processor.processPayment(amount);
+            success = true;
+        } finally {
+            long nanos = timed ? System.nanoTime() - start : -1;
+            metrics.record(nanos, success ? 1 : 0, success ? 0 : 1);
+        }
+    }
+
+    // Times one batch call; the outcome counters are taken from the individual results
+    public List<PaymentResult> processBatch(BatchPaymentProcessor processor, List<PaymentRequest> batch) {
+        ProcessorMetrics metrics = forMethod(processor.getPaymentMethod());
+        long start = System.nanoTime();
+        List<PaymentResult> results = null;
+        try {
+            results = processor.processBatch(batch);
+            return results;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (results == null) {
+                metrics.record(nanos, 0, batch.size());
+            } else {
+                int failed = 0;
+                for (PaymentResult result : results) {
+                    if (result.status() == PaymentResult.Status.FAILED) {
+                        failed++;
+                    }
+                }
+                metrics.record(nanos, results.size() - failed, failed);
+            }
+        }
+    }
+
+    public PaymentMetricsSnapshot snapshot() {
+        List<ProcessorStats> stats = new ArrayList<>(processors.size());
+        for (ProcessorMetrics metrics : processors.values()) {
+            stats.add(metrics.stats());
+        }
+        stats.sort((a, b) -> a.paymentMethod().compareTo(b.paymentMethod()));
+        return new PaymentMetricsSnapshot(lookups.sum(), unknownMethods.sum(), stats);
+    }
+}
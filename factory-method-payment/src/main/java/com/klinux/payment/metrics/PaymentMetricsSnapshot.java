@@ -0,0 +1,6 @@
+package com.klinux.payment.metrics;
+
+import java.util.List;
+
+public record PaymentMetricsSnapshot(long lookups, long unknownMethods, List<ProcessorStats> processors) {
+}
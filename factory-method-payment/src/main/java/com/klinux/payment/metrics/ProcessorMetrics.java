@@ -0,0 +1,41 @@
+package com.klinux.payment.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and call latency for one payment method. LongAdder keeps the counters striped,
+// so concurrent payments on the same method do not contend on a single cache line.
+public class ProcessorMetrics {
+
+    private final String paymentMethod;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    ProcessorMetrics(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    // One processor call; a batch call covers several payments. Negative nanos: the call was not timed.
+    public void record(long nanos, int processedPayments, int failedPayments) {
+        if (nanos >= 0) {
+            latency.record(nanos);
+        }
+        if (processedPayments != 0) {
+            processed.add(processedPayments);
+        }
+        if (failedPayments != 0) {
+            failed.add(failedPayments);
+        }
+    }
+
+    public ProcessorStats stats() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return new ProcessorStats(paymentMethod, processed.sum(), failed.sum(), snapshot.totalCount(),
+                micros(snapshot.valueAtPercentile(50)), micros(snapshot.valueAtPercentile(99)),
+                micros(snapshot.valueAtPercentile(99.9)), micros(snapshot.maxValue()));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
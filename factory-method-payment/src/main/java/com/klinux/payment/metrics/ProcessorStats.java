@@ -0,0 +1,6 @@
+package com.klinux.payment.metrics;
+
+// Latencies are processor call times in microseconds, taken from latencySamples timed calls
+public record ProcessorStats(String paymentMethod, long processed, long failed, long latencySamples,
+        double p50Micros, double p99Micros, double p999Micros, double maxMicros) {
+}
@@ -0,0 +1,4 @@
+package com.klinux.payment.model;
+
+public record PaymentRequest(String paymentMethod, double amount) {
+}
@@ -0,0 +1,29 @@
+package com.klinux.payment.model;
+
+public record PaymentResult(String paymentMethod, double amount, Status status, String message) {
+
+    public enum Status {
+        PROCESSED,
+        FAILED,
+        // Never sent to the processor (no free permit); safe to retry
+        REJECTED,
+        // The processor call timed out and was interrupted; the gateway may still have charged the payment
+        UNKNOWN
+    }
+
+    public static PaymentResult processed(PaymentRequest request, String message) {
+        return new PaymentResult(request.paymentMethod(), request.amount(), Status.PROCESSED, message);
+    }
+
+    public static PaymentResult unknown(PaymentRequest request, String message) {
+        return new PaymentResult(request.paymentMethod(), request.amount(), Status.UNKNOWN, message);
+    }
+
+    public static PaymentResult rejected(PaymentRequest request, String message) {
+        return new PaymentResult(request.paymentMethod(), request.amount(), Status.REJECTED, message);
+    }
+
+    public static PaymentResult failed(PaymentRequest request, String message) {
+        return new PaymentResult(request.paymentMethod(), request.amount(), Status.FAILED, message);
+    }
+}
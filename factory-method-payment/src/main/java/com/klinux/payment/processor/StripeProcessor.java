@@ -1,14 +1,34 @@
 package com.klinux.payment.processor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
-import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.BatchPaymentProcessor;
+import com.klinux.payment.PaymentMethod;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
 
 @Component
-public class StripeProcessor implements PaymentProcessor {
+public class StripeProcessor implements BatchPaymentProcessor {
+
+    @Override
+    public String getPaymentMethod() {
+        return PaymentMethod.STRIPE.getKey();
+    }
 
     @Override
     public void processPayment(double amount) {
         System.out.println("Processing Stripe Payment of $" + amount);
     }
+
+    @Override
+    public List<PaymentResult> processBatch(List<PaymentRequest> payments) {
+        List<PaymentResult> results = new ArrayList<>(payments.size());
+        for (PaymentRequest payment : payments) {
+            results.add(PaymentResult.processed(payment, "Processed via Stripe"));
+        }
+        return results;
+    }
 }
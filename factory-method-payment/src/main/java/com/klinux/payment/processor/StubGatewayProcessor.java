@@ -0,0 +1,35 @@
+package com.klinux.payment.processor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.klinux.payment.PaymentProcessor;
+
+// Simulated I/O-bound gateway for local load tests: run with --spring.profiles.active=stub
+// and pay with paymentMethod=stub
+@Component
+@Profile("stub")
+public class StubGatewayProcessor implements PaymentProcessor {
+
+    private final long latencyMillis;
+
+    public StubGatewayProcessor(@Value("${payment.stub.latency-ms:50}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        return "stub";
+    }
+
+    @Override
+    public void processPayment(double amount) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub gateway call interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.klinux.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.klinux.payment.idempotency.IdempotencyCache;
+import com.klinux.payment.idempotency.IdempotencyMetrics;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+// Idempotency layer in front of PaymentService: retries that carry the same key get the original outcome
+@Service
+public class IdempotentPaymentService {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    // Without a key every call is processed, as before
+    public CompletableFuture<PaymentResult> processPayment(String idempotencyKey, String paymentMethod, double amount) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return paymentService.processPaymentAsync(paymentMethod, amount);
+        }
+        return idempotencyCache.getOrStart(idempotencyKey, new PaymentRequest(paymentMethod, amount),
+                () -> paymentService.startPayment(paymentMethod, amount));
+    }
+
+    public IdempotencyMetrics metrics() {
+        return idempotencyCache.metrics();
+    }
+}
@@ -1,10 +1,24 @@
 package com.klinux.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.klinux.payment.BatchPaymentProcessor;
 import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.async.PaymentCall;
+import com.klinux.payment.async.ProcessorBulkhead;
 import com.klinux.payment.factory.PaymentProcessorFactory;
+import com.klinux.payment.metrics.PaymentMetrics;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
 
 @Service
 public class PaymentService {
@@ -12,8 +26,121 @@ public class PaymentService {
     @Autowired
     private PaymentProcessorFactory paymentProcessorFactory;
 
+    @Autowired
+    private ProcessorBulkhead processorBulkhead;
+
+    @Autowired
+    private PaymentMetrics paymentMetrics;
+
+    // Opt-in: run processor calls on the payment executor instead of the request thread
+    @Value("${payment.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    // Largest group handed to a processor in one call
+    @Value("${payment.batch.max-size:500}")
+    private int maxBatchSize = 500;
+
     public void processPayment(String paymentMethod, double amount) {
-        PaymentProcessor processor = paymentProcessorFactory.getPaymentProcessor(paymentMethod);
-        processor.processPayment(amount);
+        PaymentProcessor processor = lookup(paymentMethod);
+        paymentMetrics.process(processor, amount);
+    }
+
+    // Completes when the processor call finishes or times out; in async mode the calling thread is released immediately
+    public CompletableFuture<PaymentResult> processPaymentAsync(String paymentMethod, double amount) {
+        return startPayment(paymentMethod, amount).result();
+    }
+
+    // Like processPaymentAsync, but also tells when the processor call has really ended (see PaymentCall).
+    // Only an unknown payment method throws; every failure after the lookup is a result.
+    public PaymentCall startPayment(String paymentMethod, double amount) {
+        PaymentProcessor processor = lookup(paymentMethod);
+        PaymentRequest payment = new PaymentRequest(paymentMethod, amount);
+        if (!asyncEnabled) {
+            try {
+                paymentMetrics.process(processor, amount);
+            } catch (RuntimeException e) {
+                return PaymentCall.completed(PaymentResult.failed(payment, e.getMessage()));
+            }
+            return PaymentCall.completed(PaymentResult.processed(payment, "Processed via " + paymentMethod));
+        }
+        return processorBulkhead.start(processor, payment);
+    }
+
+    // Groups the payments by processor and sends each group as one batch; results keep the request order
+    public List<PaymentResult> processPayments(List<PaymentRequest> payments) {
+        PaymentResult[] results = new PaymentResult[payments.size()];
+        Map<PaymentProcessor, List<Integer>> groups = new IdentityHashMap<>();
+
+        for (int i = 0; i < payments.size(); i++) {
+            PaymentRequest payment = payments.get(i);
+            try {
+                PaymentProcessor processor = lookup(payment.paymentMethod());
+                groups.computeIfAbsent(processor, p -> new ArrayList<>()).add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = PaymentResult.failed(payment, e.getMessage());
+            }
+        }
+
+        for (Map.Entry<PaymentProcessor, List<Integer>> group : groups.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            int chunkSize = maxBatchSize > 0 ? maxBatchSize : indexes.size();
+            for (int from = 0; from < indexes.size(); from += chunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+                List<PaymentRequest> batch = new ArrayList<>(chunk.size());
+                for (int index : chunk) {
+                    batch.add(payments.get(index));
+                }
+                List<PaymentResult> batchResults = dispatch(group.getKey(), batch);
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = batchResults.get(j);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private PaymentProcessor lookup(String paymentMethod) {
+        try {
+            PaymentProcessor processor = paymentProcessorFactory.getPaymentProcessor(paymentMethod);
+            paymentMetrics.recordLookup();
+            return processor;
+        } catch (IllegalArgumentException e) {
+            paymentMetrics.recordUnknownMethod();
+            throw e;
+        }
+    }
+
+    private List<PaymentResult> dispatch(PaymentProcessor processor, List<PaymentRequest> batch) {
+        if (processor instanceof BatchPaymentProcessor batchProcessor) {
+            try {
+                List<PaymentResult> results = paymentMetrics.processBatch(batchProcessor, batch);
+                if (results.size() == batch.size()) {
+                    return results;
+                }
+                return failAll(batch, "Processor returned " + results.size() + " results for " + batch.size() + " payments");
+            } catch (RuntimeException e) {
+                return failAll(batch, e.getMessage());
+            }
+        }
+
+        // Processors without batch support still work, one call per payment
+        List<PaymentResult> results = new ArrayList<>(batch.size());
+        for (PaymentRequest payment : batch) {
+            try {
+                paymentMetrics.process(processor, payment.amount());
+                results.add(PaymentResult.processed(payment, "Processed"));
+            } catch (RuntimeException e) {
+                results.add(PaymentResult.failed(payment, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static List<PaymentResult> failAll(List<PaymentRequest> batch, String message) {
+        List<PaymentResult> results = new ArrayList<>(batch.size());
+        for (PaymentRequest payment : batch) {
+            results.add(PaymentResult.failed(payment, message));
+        }
+        return results;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.klinux.payment.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.klinux.payment.metrics.PaymentMetrics;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+import com.klinux.payment.processor.StubGatewayProcessor;
+
+public class ProcessorBulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Sleeping stub that records the highest number of overlapping calls and the completed charges
+    static class CountingStubProcessor extends StubGatewayProcessor {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicInteger charges = new AtomicInteger();
+
+        CountingStubProcessor(long latencyMillis) {
+            super(latencyMillis);
+        }
+
+        @Override
+        public void processPayment(double amount) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                super.processPayment(amount);
+                charges.incrementAndGet();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    // Gateway call that ignores interrupts, like a blocking socket write that has already gone out
+    static class UninterruptibleStubProcessor extends CountingStubProcessor {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        UninterruptibleStubProcessor() {
+            super(0);
+        }
+
+        @Override
+        public void processPayment(double amount) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            charges.incrementAndGet();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    public void testManyInFlightPaymentsRespectTheProcessorLimit() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("payment.async.processor.stub.max-concurrency", "20");
+        ProcessorBulkhead bulkhead = new ProcessorBulkhead(executor, environment, 256, 5_000, new PaymentMetrics());
+        CountingStubProcessor processor = new CountingStubProcessor(20);
+
+        List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            results.add(bulkhead.submit(processor, new PaymentRequest("stub", i)));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        // Payments over the limit are turned away at once instead of queueing
+        int processed = 0;
+        for (CompletableFuture<PaymentResult> result : results) {
+            PaymentResult.Status status = result.join().status();
+            assertTrue(status == PaymentResult.Status.PROCESSED || status == PaymentResult.Status.REJECTED);
+            processed += status == PaymentResult.Status.PROCESSED ? 1 : 0;
+        }
+        assertTrue(processed >= 20, "processed " + processed);
+        assertEquals(processed, processor.charges.get());
+        assertTrue(processor.maxInFlight.get() <= 20, "max in flight " + processor.maxInFlight.get());
+        assertEquals(20, bulkhead.availablePermits("stub"));
+    }
+
+    @Test
+    public void testSlowProcessorTimesOutAndIsInterrupted() {
+        ProcessorBulkhead bulkhead = new ProcessorBulkhead(executor, new MockEnvironment(), 10, 50, new PaymentMetrics());
+        CountingStubProcessor processor = new CountingStubProcessor(1_000);
+
+        PaymentCall call = bulkhead.start(processor, new PaymentRequest("stub", 10.0));
+        PaymentResult result = call.result().join();
+
+        assertEquals(PaymentResult.Status.UNKNOWN, result.status());
+        assertTrue(result.message().startsWith("Timed out"));
+        // The interrupt ends the sleeping call long before its 1 s latency, without a charge
+        PaymentResult outcome = call.outcome().orTimeout(500, TimeUnit.MILLISECONDS).join();
+        assertEquals(PaymentResult.Status.UNKNOWN, outcome.status());
+        assertEquals(0, processor.charges.get());
+        assertEquals(10, bulkhead.availablePermits("stub"));
+    }
+
+    @Test
+    public void testCallStillRunningAtTimeoutKeepsItsPermitAndReportsTheRealOutcome() throws Exception {
+        ProcessorBulkhead bulkhead = new ProcessorBulkhead(executor, new MockEnvironment(), 10, 50, new PaymentMetrics());
+        UninterruptibleStubProcessor processor = new UninterruptibleStubProcessor();
+
+        PaymentCall call = bulkhead.start(processor, new PaymentRequest("stub", 10.0));
+
+        assertEquals(PaymentResult.Status.UNKNOWN, call.result().join().status());
+        assertFalse(call.outcome().isDone());
+        assertEquals(9, bulkhead.availablePermits("stub"));
+
+        processor.release.countDown();
+        assertEquals(PaymentResult.Status.PROCESSED, call.outcome().get(1, TimeUnit.SECONDS).status());
+        assertEquals(1, processor.charges.get());
+        // The client still sees the result it was given at the timeout
+        assertEquals(PaymentResult.Status.UNKNOWN, call.result().join().status());
+        assertEquals(10, bulkhead.availablePermits("stub"));
+    }
+
+    @Test
+    public void testNoFreePermitIsRejectedWithoutQueueing() {
+        ProcessorBulkhead bulkhead = new ProcessorBulkhead(executor, new MockEnvironment(), 1, 5_000, new PaymentMetrics());
+        UninterruptibleStubProcessor processor = new UninterruptibleStubProcessor();
+
+        PaymentCall first = bulkhead.start(processor, new PaymentRequest("stub", 1.0));
+        PaymentCall second = bulkhead.start(processor, new PaymentRequest("stub", 2.0));
+
+        assertEquals(PaymentResult.Status.REJECTED, second.result().getNow(null).status());
+        processor.release.countDown();
+        assertEquals(PaymentResult.Status.PROCESSED, first.result().join().status());
+        assertEquals(1, processor.charges.get());
+    }
+
+    @Test
+    public void testSlowProcessorDoesNotHoldThePoolFromTheOthers() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("payment.async.processor.slow.max-concurrency", "1");
+            ProcessorBulkhead bulkhead = new ProcessorBulkhead(pool, environment, 10, 5_000, new PaymentMetrics());
+            UninterruptibleStubProcessor slow = new UninterruptibleStubProcessor() {
+                @Override
+                public String getPaymentMethod() {
+                    return "slow";
+                }
+            };
+            CountingStubProcessor fast = new CountingStubProcessor(0);
+
+            List<PaymentCall> slowCalls = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                slowCalls.add(bulkhead.start(slow, new PaymentRequest("slow", i)));
+            }
+            // One slow call holds one pool thread; the rest were rejected instead of taking the other thread
+            PaymentResult result = bulkhead.submit(fast, new PaymentRequest("stub", 1.0)).orTimeout(1, TimeUnit.SECONDS).join();
+            assertEquals(PaymentResult.Status.PROCESSED, result.status());
+            assertEquals(9, slowCalls.stream().filter(call -> call.result().isDone()).count());
+
+            slow.release.countDown();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeoutCountsTimeQueuedForAThread() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            ProcessorBulkhead bulkhead = new ProcessorBulkhead(single, new MockEnvironment(), 10, 100, new PaymentMetrics());
+            UninterruptibleStubProcessor processor = new UninterruptibleStubProcessor();
+
+            PaymentCall running = bulkhead.start(processor, new PaymentRequest("stub", 1.0));
+            PaymentCall queued = bulkhead.start(processor, new PaymentRequest("stub", 2.0));
+
+            // The queued call times out 100 ms after submission, never runs and gives its permit back
+            assertEquals(PaymentResult.Status.UNKNOWN, queued.result().get(1, TimeUnit.SECONDS).status());
+            assertEquals(PaymentResult.Status.REJECTED, queued.outcome().get(1, TimeUnit.SECONDS).status());
+            assertEquals(9, bulkhead.availablePermits("stub"));
+
+            processor.release.countDown();
+            assertEquals(PaymentResult.Status.PROCESSED, running.outcome().get(1, TimeUnit.SECONDS).status());
+            single.shutdown();
+            assertTrue(single.awaitTermination(1, TimeUnit.SECONDS));
+            assertEquals(1, processor.charges.get());
+            assertEquals(10, bulkhead.availablePermits("stub"));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+}
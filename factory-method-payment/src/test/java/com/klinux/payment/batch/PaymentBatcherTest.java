@@ -0,0 +1,126 @@
+package com.klinux.payment.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+import com.klinux.service.PaymentService;
+
+public class PaymentBatcherTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final RecordingPaymentService paymentService = new RecordingPaymentService();
+    private PaymentBatcher batcher;
+
+    @AfterEach
+    public void tearDown() {
+        batcher.destroy();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFullWindowIsFlushedWithoutWaitingForTheDelay() throws Exception {
+        batcher = new PaymentBatcher(paymentService, executor, 3, 60_000);
+
+        List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batcher.submit(new PaymentRequest("stripe", i)));
+        }
+
+        assertEquals(3, paymentService.batches.poll(5, TimeUnit.SECONDS).size());
+        for (CompletableFuture<PaymentResult> result : results) {
+            assertEquals(PaymentResult.Status.PROCESSED, result.get(5, TimeUnit.SECONDS).status());
+        }
+    }
+
+    @Test
+    public void testPartialWindowIsFlushedAfterTheDelay() throws Exception {
+        batcher = new PaymentBatcher(paymentService, executor, 100, 50);
+
+        CompletableFuture<PaymentResult> first = batcher.submit(new PaymentRequest("stripe", 1));
+        CompletableFuture<PaymentResult> second = batcher.submit(new PaymentRequest("paypal", 2));
+
+        assertEquals(2, paymentService.batches.poll(5, TimeUnit.SECONDS).size());
+        assertEquals(PaymentResult.Status.PROCESSED, first.get(5, TimeUnit.SECONDS).status());
+        assertEquals(PaymentResult.Status.PROCESSED, second.get(5, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    public void testTimerOfAFlushedWindowDoesNotFlushTheNextOneEarly() throws Exception {
+        batcher = new PaymentBatcher(paymentService, executor, 2, 300);
+
+        // Fills the first window, whose timer is still pending, then opens a second window
+        batcher.submit(new PaymentRequest("stripe", 1));
+        batcher.submit(new PaymentRequest("stripe", 2));
+        assertEquals(2, paymentService.batches.poll(5, TimeUnit.SECONDS).size());
+        Thread.sleep(200);
+        long opened = System.nanoTime();
+        CompletableFuture<PaymentResult> next = batcher.submit(new PaymentRequest("stripe", 3));
+
+        // The first window's timer would have fired about 100 ms from now
+        Thread.sleep(150);
+        assertFalse(next.isDone());
+        next.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - opened >= TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    public void testSlowBatchDoesNotHoldBackTheNextWindow() throws Exception {
+        batcher = new PaymentBatcher(paymentService, executor, 1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        paymentService.block = release;
+
+        CompletableFuture<PaymentResult> slow = batcher.submit(new PaymentRequest("stripe", 1));
+        assertEquals(1, paymentService.batches.poll(5, TimeUnit.SECONDS).size());
+        paymentService.block = null;
+        CompletableFuture<PaymentResult> next = batcher.submit(new PaymentRequest("stripe", 2));
+
+        assertEquals(PaymentResult.Status.PROCESSED, next.get(5, TimeUnit.SECONDS).status());
+        assertFalse(slow.isDone());
+        assertNotEquals(Thread.currentThread().getName(), paymentService.lastThread);
+        release.countDown();
+        assertEquals(PaymentResult.Status.PROCESSED, slow.get(5, TimeUnit.SECONDS).status());
+    }
+
+    private static class RecordingPaymentService extends PaymentService {
+
+        private final BlockingQueue<List<PaymentRequest>> batches = new LinkedBlockingQueue<>();
+        private volatile CountDownLatch block;
+        private volatile String lastThread;
+
+        @Override
+        public List<PaymentResult> processPayments(List<PaymentRequest> payments) {
+            CountDownLatch latch = block;
+            lastThread = Thread.currentThread().getName();
+            batches.add(payments);
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<PaymentResult> results = new ArrayList<>();
+            for (PaymentRequest payment : payments) {
+                results.add(PaymentResult.processed(payment, "ok"));
+            }
+            return results;
+        }
+    }
+}
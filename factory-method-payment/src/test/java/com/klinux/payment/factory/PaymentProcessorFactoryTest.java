@@ -0,0 +1,76 @@
+package com.klinux.payment.factory;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.payment.PaymentMethod;
+import com.klinux.payment.PaymentProcessor;
+import com.klinux.payment.processor.CreditCardProcessor;
+import com.klinux.payment.processor.PayPalProcessor;
+import com.klinux.payment.processor.StripeProcessor;
+
+public class PaymentProcessorFactoryTest {
+
+    private final CreditCardProcessor creditCardProcessor = new CreditCardProcessor();
+    private final PayPalProcessor payPalProcessor = new PayPalProcessor();
+    private final StripeProcessor stripeProcessor = new StripeProcessor();
+
+    private final PaymentProcessorFactory factory =
+            new PaymentProcessorFactory(List.of(creditCardProcessor, payPalProcessor, stripeProcessor));
+
+    @Test
+    public void testLookupIsCaseInsensitive() {
+        assertSame(creditCardProcessor, factory.getPaymentProcessor("creditcard"));
+        assertSame(creditCardProcessor, factory.getPaymentProcessor("CreditCard"));
+        assertSame(payPalProcessor, factory.getPaymentProcessor("PAYPAL"));
+        assertSame(stripeProcessor, factory.getPaymentProcessor("Stripe"));
+    }
+
+    @Test
+    public void testLookupByEnum() {
+        assertSame(creditCardProcessor, factory.getPaymentProcessor(PaymentMethod.CREDIT_CARD));
+        assertSame(payPalProcessor, factory.getPaymentProcessor(PaymentMethod.PAYPAL));
+        assertSame(stripeProcessor, factory.getPaymentProcessor(PaymentMethod.STRIPE));
+    }
+
+    @Test
+    public void testUnknownMethod() {
+        assertThrows(IllegalArgumentException.class, () -> factory.getPaymentProcessor("bitcoin"));
+        assertThrows(IllegalArgumentException.class, () -> factory.getPaymentProcessor(""));
+    }
+
+    @Test
+    public void testMissingMethod() {
+        assertThrows(IllegalArgumentException.class, () -> factory.getPaymentProcessor((String) null));
+        assertThrows(IllegalArgumentException.class, () -> factory.getPaymentProcessor("  "));
+    }
+
+    @Test
+    public void testNewProcessorPlugsInWithoutFactoryChanges() {
+        PaymentProcessor bitcoinProcessor = new PaymentProcessor() {
+            @Override
+            public void processPayment(double amount) {
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "bitcoin";
+            }
+        };
+        PaymentProcessorFactory extended =
+                new PaymentProcessorFactory(List.of(creditCardProcessor, payPalProcessor, stripeProcessor, bitcoinProcessor));
+
+        assertSame(bitcoinProcessor, extended.getPaymentProcessor("BitCoin"));
+        assertSame(stripeProcessor, extended.getPaymentProcessor("stripe"));
+    }
+
+    @Test
+    public void testDuplicateMethodIsRejected() {
+        assertThrows(IllegalStateException.class,
+                () -> new PaymentProcessorFactory(List.of(stripeProcessor, new StripeProcessor())));
+    }
+}
@@ -0,0 +1,195 @@
+package com.klinux.payment.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.exception.IdempotencyKeyConflictException;
+import com.klinux.payment.async.PaymentCall;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
+
+public class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final PaymentRequest payment = new PaymentRequest("stripe", 10.0);
+
+    private PaymentCall call() {
+        calls.incrementAndGet();
+        return PaymentCall.completed(PaymentResult.processed(payment, "ok"));
+    }
+
+    @Test
+    public void testConcurrentDuplicatesShareOneCall() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        CompletableFuture<PaymentResult> gateway = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompletableFuture<PaymentResult>>> submissions = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                submissions.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getOrStart("key-1", payment, () -> {
+                        calls.incrementAndGet();
+                        return new PaymentCall(gateway, gateway);
+                    });
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<PaymentResult>> results = new ArrayList<>();
+            for (Future<CompletableFuture<PaymentResult>> submission : submissions) {
+                results.add(submission.get());
+            }
+            gateway.complete(PaymentResult.processed(payment, "ok"));
+
+            assertEquals(1, calls.get());
+            for (CompletableFuture<PaymentResult> result : results) {
+                assertSame(results.get(0), result);
+                assertEquals(PaymentResult.Status.PROCESSED, result.join().status());
+            }
+            assertEquals(7, cache.metrics().hits());
+            assertEquals(1, cache.metrics().misses());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 100, 4, now::get);
+        cache.getOrStart("key-1", payment, this::call);
+        now.set(50);
+        cache.getOrStart("key-1", payment, this::call);
+        assertEquals(1, calls.get());
+
+        now.set(200);
+        cache.getOrStart("key-1", payment, this::call);
+        assertEquals(2, calls.get());
+        assertEquals(1, cache.metrics().evictions());
+    }
+
+    @Test
+    public void testOldestEntriesAreEvictedWhenFull() {
+        IdempotencyCache cache = new IdempotencyCache(4, 1_000_000, 1, now::get);
+        for (int i = 0; i < 10; i++) {
+            cache.getOrStart("key-" + i, payment, this::call);
+        }
+        IdempotencyMetrics metrics = cache.metrics();
+        assertEquals(6, metrics.evictions());
+        assertEquals(4, metrics.size());
+    }
+
+    @Test
+    public void testRejectedPaymentsCanBeRetried() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        cache.getOrStart("key-1", payment, () -> {
+            calls.incrementAndGet();
+            return PaymentCall.completed(PaymentResult.rejected(payment, "Too many payments in flight"));
+        });
+        cache.getOrStart("key-1", payment, this::call);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testUnknownPaymentMethodCanBeRetried() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrStart("key-1", payment, () -> {
+            throw new IllegalArgumentException("Unsupported payment method: stripe");
+        }));
+        cache.getOrStart("key-1", payment, this::call);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testFailedPaymentsAreRemembered() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        cache.getOrStart("key-1", payment, () -> {
+            calls.incrementAndGet();
+            return PaymentCall.completed(PaymentResult.failed(payment, "declined"));
+        });
+        PaymentResult retried = cache.getOrStart("key-1", payment, this::call).join();
+        assertEquals(1, calls.get());
+        assertEquals(PaymentResult.Status.FAILED, retried.status());
+    }
+
+    @Test
+    public void testUnknownResultIsReplacedByTheCallsOutcome() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 100, 4, now::get);
+        CompletableFuture<PaymentResult> outcome = new CompletableFuture<>();
+        PaymentResult first = cache.getOrStart("key-1", payment, () -> {
+            calls.incrementAndGet();
+            return new PaymentCall(CompletableFuture.completedFuture(PaymentResult.unknown(payment, "timed out")), outcome);
+        }).join();
+        assertEquals(PaymentResult.Status.UNKNOWN, first.status());
+
+        // Still running past the TTL: a retry must not start a second charge
+        now.set(500);
+        assertEquals(PaymentResult.Status.UNKNOWN, cache.getOrStart("key-1", payment, this::call).join().status());
+        assertEquals(1, calls.get());
+
+        outcome.complete(PaymentResult.processed(payment, "charged late"));
+        now.set(50);
+        assertEquals(PaymentResult.Status.PROCESSED, cache.getOrStart("key-1", payment, this::call).join().status());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCallThatTimedOutBeforeStartingCanBeRetried() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        CompletableFuture<PaymentResult> outcome = new CompletableFuture<>();
+        cache.getOrStart("key-1", payment, () -> {
+            calls.incrementAndGet();
+            return new PaymentCall(CompletableFuture.completedFuture(PaymentResult.unknown(payment, "timed out")), outcome);
+        }).join();
+
+        outcome.complete(PaymentResult.rejected(payment, "Timed out before the call started"));
+        cache.getOrStart("key-1", payment, this::call);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testInFlightEntriesAreNotEvictedWhenFull() {
+        IdempotencyCache cache = new IdempotencyCache(2, 1_000_000, 1, now::get);
+        CompletableFuture<PaymentResult> gateway = new CompletableFuture<>();
+        cache.getOrStart("slow", payment, () -> new PaymentCall(gateway, gateway));
+        for (int i = 0; i < 10; i++) {
+            cache.getOrStart("key-" + i, payment, this::call);
+        }
+        cache.getOrStart("slow", payment, this::call);
+        assertEquals(10, calls.get());
+
+        gateway.complete(PaymentResult.processed(payment, "ok"));
+        cache.getOrStart("key-10", payment, this::call);
+        assertEquals(2, cache.metrics().size());
+    }
+
+    @Test
+    public void testPaymentMethodIsMatchedIgnoringCase() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        cache.getOrStart("key-1", new PaymentRequest("CreditCard", 10.0), this::call);
+        cache.getOrStart("key-1", new PaymentRequest("creditcard", 10.0), this::call);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentPaymentIsRejected() {
+        IdempotencyCache cache = new IdempotencyCache(1_000, 1_000_000, 4, now::get);
+        cache.getOrStart("key-1", payment, this::call);
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> cache.getOrStart("key-1", new PaymentRequest("stripe", 99.0), this::call));
+    }
+}
@@ -0,0 +1,45 @@
+package com.klinux.payment.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverEveryValueWithinOneSixteenth() {
+        long[] values = { 0, 1, 15, 16, 31, 32, 33, 1_000, 123_456, 5_000_000_000L, Long.MAX_VALUE };
+        for (long value : values) {
+            long reported = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+            assertTrue(reported >= value, value + " reported as " + reported);
+            assertTrue(reported - value <= value / 16, value + " reported as " + reported);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000, snapshot.totalCount());
+        assertWithin(500_000, snapshot.valueAtPercentile(50));
+        assertWithin(990_000, snapshot.valueAtPercentile(99));
+        assertWithin(999_000, snapshot.valueAtPercentile(99.9));
+        assertWithin(1_000_000, snapshot.maxValue());
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.valueAtPercentile(99));
+        assertEquals(0, snapshot.maxValue());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 16, "expected ~" + expected + " but was " + actual);
+    }
+}
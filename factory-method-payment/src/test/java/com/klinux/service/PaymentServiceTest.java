@@ -1,16 +1,29 @@
 package com.klinux.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.klinux.payment.BatchPaymentProcessor;
 import com.klinux.payment.PaymentProcessor;
 import com.klinux.payment.factory.PaymentProcessorFactory;
+import com.klinux.payment.metrics.PaymentMetrics;
+import com.klinux.payment.metrics.PaymentMetricsSnapshot;
+import com.klinux.payment.metrics.ProcessorStats;
+import com.klinux.payment.model.PaymentRequest;
+import com.klinux.payment.model.PaymentResult;
 
 @ExtendWith(MockitoExtension.class)
 public class PaymentServiceTest {
@@ -21,9 +34,21 @@ public class PaymentServiceTest {
     @Mock
     private PaymentProcessor mockPaymentProcessor;
 
+    @Mock
+    private BatchPaymentProcessor mockBatchProcessor;
+
+    @Spy
+    private PaymentMetrics paymentMetrics = new PaymentMetrics();
+
     @InjectMocks
     private PaymentService paymentService;
 
+    @BeforeEach
+    public void setUp() {
+        lenient().when(mockPaymentProcessor.getPaymentMethod()).thenReturn("paypal");
+        lenient().when(mockBatchProcessor.getPaymentMethod()).thenReturn("stripe");
+    }
+
     @Test
     public void testProcessPayment_creditCard() {
         when(paymentProcessorFactory.getPaymentProcessor("creditcard")).thenReturn(mockPaymentProcessor);
@@ -58,4 +83,66 @@ public class PaymentServiceTest {
             assert(e.getMessage().equals("Unknown payment method: bitcoin"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessPayments_groupsByProcessorAndKeepsOrder() {
+        PaymentRequest stripe1 = new PaymentRequest("stripe", 10.0);
+        PaymentRequest paypal = new PaymentRequest("paypal", 20.0);
+        PaymentRequest stripe2 = new PaymentRequest("stripe", 30.0);
+        PaymentRequest bitcoin = new PaymentRequest("bitcoin", 40.0);
+        when(paymentProcessorFactory.getPaymentProcessor("stripe")).thenReturn(mockBatchProcessor);
+        when(paymentProcessorFactory.getPaymentProcessor("paypal")).thenReturn(mockPaymentProcessor);
+        when(paymentProcessorFactory.getPaymentProcessor("bitcoin")).thenThrow(new IllegalArgumentException("Unknown payment method: bitcoin"));
+        when(mockBatchProcessor.processBatch(anyList())).thenReturn(List.of(
+                PaymentResult.processed(stripe1, "ok"), PaymentResult.processed(stripe2, "ok")));
+
+        List<PaymentResult> results = paymentService.processPayments(List.of(stripe1, paypal, stripe2, bitcoin));
+
+        verify(mockBatchProcessor).processBatch(List.of(stripe1, stripe2));
+        verify(mockPaymentProcessor).processPayment(20.0);
+        assertEquals(4, results.size());
+        assertEquals(10.0, results.get(0).amount());
+        assertEquals(PaymentResult.Status.PROCESSED, results.get(1).status());
+        assertEquals(30.0, results.get(2).amount());
+        assertEquals(PaymentResult.Status.FAILED, results.get(3).status());
+        assertEquals("Unknown payment method: bitcoin", results.get(3).message());
+    }
+
+    @Test
+    public void testProcessPayments_recordsMetrics() {
+        PaymentRequest stripe = new PaymentRequest("stripe", 10.0);
+        PaymentRequest paypal = new PaymentRequest("paypal", 20.0);
+        when(paymentProcessorFactory.getPaymentProcessor("stripe")).thenReturn(mockBatchProcessor);
+        when(paymentProcessorFactory.getPaymentProcessor("paypal")).thenReturn(mockPaymentProcessor);
+        when(paymentProcessorFactory.getPaymentProcessor("bitcoin")).thenThrow(new IllegalArgumentException("Unknown payment method: bitcoin"));
+        when(mockBatchProcessor.processBatch(anyList())).thenReturn(List.of(PaymentResult.failed(stripe, "declined")));
+
+        paymentService.processPayments(List.of(stripe, paypal, new PaymentRequest("bitcoin", 1.0)));
+
+        PaymentMetricsSnapshot snapshot = paymentMetrics.snapshot();
+        assertEquals(3, snapshot.lookups());
+        assertEquals(1, snapshot.unknownMethods());
+        assertEquals(2, snapshot.processors().size());
+        ProcessorStats paypalStats = snapshot.processors().get(0);
+        assertEquals("paypal", paypalStats.paymentMethod());
+        assertEquals(1, paypalStats.processed());
+        ProcessorStats stripeStats = snapshot.processors().get(1);
+        assertEquals(0, stripeStats.processed());
+        assertEquals(1, stripeStats.failed());
+        assertEquals(1, stripeStats.latencySamples());
+    }
+
+    @Test
+    public void testProcessPayments_missingMethodFailsOnlyThatItem() {
+        PaymentRequest paypal = new PaymentRequest("paypal", 20.0);
+        PaymentRequest missing = new PaymentRequest(null, 5.0);
+        when(paymentProcessorFactory.getPaymentProcessor("paypal")).thenReturn(mockPaymentProcessor);
+        when(paymentProcessorFactory.getPaymentProcessor((String) null)).thenThrow(new IllegalArgumentException("Missing payment method"));
+
+        List<PaymentResult> results = paymentService.processPayments(List.of(paypal, missing));
+
+        assertEquals(PaymentResult.Status.PROCESSED, results.get(0).status());
+        assertEquals(PaymentResult.Status.FAILED, results.get(1).status());
+        assertEquals("Missing payment method", results.get(1).message());
+    }
+}
@@ -0,0 +1,54 @@
+package com.klinux.config;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.klinux.log.AsyncLogSettings;
+import com.klinux.log.BackpressurePolicy;
+import com.klinux.log.LogManager;
+import com.klinux.log.LogSink;
+import com.klinux.log.Slf4jLogSink;
+import com.klinux.log.WaitStrategy;
+import com.klinux.log.binary.BinaryLogSink;
+
+import jakarta.annotation.PreDestroy;
+
+// Turns on the LogManager async pipeline from the logmanager.async.* properties
+@Configuration
+@ConditionalOnProperty(prefix = "logmanager.async", name = "enabled", havingValue = "true")
+public class AsyncLogConfiguration {
+
+    // Where the consumer thread writes: SLF4J text output or binary memory-mapped segments
+    public enum SinkType {
+        SLF4J,
+        BINARY
+    }
+
+    public AsyncLogConfiguration(
+            @Value("${logmanager.async.buffer-size:8192}") int bufferSize,
+            @Value("${logmanager.async.batch-size:256}") int batchSize,
+            @Value("${logmanager.async.wait-strategy:PARK}") WaitStrategy waitStrategy,
+            @Value("${logmanager.async.backpressure:BLOCK}") BackpressurePolicy backpressure,
+            @Value("${logmanager.async.sample-rate:10}") int sampleRate,
+            @Value("${logmanager.async.stripes:0}") int stripes,
+            @Value("${logmanager.sink:SLF4J}") SinkType sinkType,
+            @Value("${logmanager.binary.directory:logs/binary}") String binaryDirectory,
+            @Value("${logmanager.binary.segment-size:10MB}") DataSize segmentSize,
+            @Value("${logmanager.binary.max-segments:30}") int maxSegments) {
+        LogSink sink = sinkType == SinkType.BINARY
+                ? new BinaryLogSink(Paths.get(binaryDirectory), Math.toIntExact(segmentSize.toBytes()), maxSegments)
+                : new Slf4jLogSink();
+        LogManager.getInstance().enableAsync(
+                new AsyncLogSettings(bufferSize, batchSize, waitStrategy, backpressure, sampleRate, stripes), sink);
+    }
+
+    // Drain pending messages before the context goes away
+    @PreDestroy
+    public void shutdown() {
+        LogManager.getInstance().disableAsync();
+    }
+}
@@ -0,0 +1,327 @@
+package com.klinux.log;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Striped ring buffers plus a single background thread that writes drained events to a sink in batches.
+// Each producer thread is pinned to one stripe (its staging buffer), so threads on different cores
+// rarely touch the same counters; the consumer drains all stripes round-robin. Order is preserved
+// per thread, not across threads. log() on the caller only claims a slot, copies a few fields and
+// publishes; no allocation once warm. Exceptions thrown by the sink are counted (sinkFailureCount)
+// and the last one kept (lastSinkFailure); the consumer carries on with the next event.
+public final class AsyncLogPipeline {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final LogRingBuffer[] stripes;
+    private final int stripeMask;
+    private final LogSink sink;
+    private final AsyncLogSettings settings;
+    private final int highWaterMark;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sinkFailures = new LongAdder();
+    private final Consumer<RuntimeException> onSinkFailure = this::sinkFailed;
+    private final Thread consumer;
+    private final Thread shutdownHook;
+
+    private volatile boolean running = true;
+    private volatile RuntimeException lastSinkFailure;
+
+    public AsyncLogPipeline(AsyncLogSettings settings, LogSink sink) {
+        this.settings = settings;
+        this.sink = sink;
+        int stripeCount = settings.effectiveStripes();
+        int stripeSize = Math.max(2, settings.bufferSize() / stripeCount);
+        this.stripes = new LogRingBuffer[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LogRingBuffer(stripeSize);
+        }
+        this.stripeMask = stripeCount - 1;
+        int capacity = stripes[0].capacity();
+        this.highWaterMark = capacity - capacity / 4;
+        this.consumer = new Thread(this::consume, "log-pipeline-consumer");
+        this.consumer.setDaemon(true);
+        this.shutdownHook = new Thread(this::shutdown, "log-pipeline-shutdown");
+        this.consumer.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean publish(String message) {
+        return publish(LogLevel.INFO, message);
+    }
+
+    // The publish methods return false when the event was dropped by the backpressure policy
+    // or the pipeline is stopped. Arguments are stored as-is and formatted by the consumer.
+    public boolean publish(LogLevel level, String template) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        ring.get(sequence).set(System.currentTimeMillis(), level, template);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, Object argument) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setObject(0, argument);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, long argument) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setLong(0, argument);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, double argument) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setDouble(0, argument);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, Object first, Object second) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setObject(0, first);
+        event.setObject(1, second);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, long first, long second) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setLong(0, first);
+        event.setLong(1, second);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, long first, double second) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setLong(0, first);
+        event.setDouble(1, second);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, double first, long second) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setDouble(0, first);
+        event.setLong(1, second);
+        ring.publish(sequence);
+        return true;
+    }
+
+    public boolean publish(LogLevel level, String template, double first, double second) {
+        LogRingBuffer ring = stripeForCurrentThread();
+        long sequence = begin(ring);
+        if (sequence < 0) {
+            return false;
+        }
+        LogEvent event = ring.get(sequence);
+        event.set(System.currentTimeMillis(), level, template);
+        event.setDouble(0, first);
+        event.setDouble(1, second);
+        ring.publish(sequence);
+        return true;
+    }
+
+    // Claims a slot in the caller's stripe, -1 if the event has to be dropped
+    private long begin(LogRingBuffer ring) {
+        if (!running) {
+            return -1;
+        }
+        long sequence = claim(ring);
+        if (sequence < 0) {
+            dropped.increment();
+        }
+        return sequence;
+    }
+
+    // Thread ids are unique for platform and virtual threads alike, so the mapping is stable per thread
+    private LogRingBuffer stripeForCurrentThread() {
+        return stripes[(int) Thread.currentThread().getId() & stripeMask];
+    }
+
+    private long claim(LogRingBuffer ring) {
+        switch (settings.backpressure()) {
+            case BLOCK:
+                return claimBlocking(ring);
+            case SAMPLE:
+                if (ring.size() >= highWaterMark
+                        && ThreadLocalRandom.current().nextInt(settings.sampleRate()) != 0) {
+                    return -1;
+                }
+                return ring.tryClaim();
+            case DROP:
+            default:
+                return ring.tryClaim();
+        }
+    }
+
+    private long claimBlocking(LogRingBuffer ring) {
+        int attempt = 0;
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            if (!running) {
+                return -1;
+            }
+            settings.waitStrategy().idle(attempt++);
+        }
+        return sequence;
+    }
+
+    private void consume() {
+        int idle = 0;
+        while (running || !isEmpty()) {
+            int written = 0;
+            for (LogRingBuffer ring : stripes) {
+                written += ring.drain(sink, settings.batchSize(), onSinkFailure);
+            }
+            if (written > 0) {
+                endOfBatch();
+                idle = 0;
+            } else {
+                settings.waitStrategy().idle(idle++);
+            }
+        }
+        endOfBatch();
+        try {
+            sink.close();
+        } catch (RuntimeException e) {
+            sinkFailed(e);
+        }
+    }
+
+    private void endOfBatch() {
+        try {
+            sink.endOfBatch();
+        } catch (RuntimeException e) {
+            sinkFailed(e);
+        }
+    }
+
+    // Called on the consumer thread only
+    private void sinkFailed(RuntimeException e) {
+        sinkFailures.increment();
+        lastSinkFailure = e;
+    }
+
+    private boolean isEmpty() {
+        for (LogRingBuffer ring : stripes) {
+            if (!ring.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Blocks until everything published before this call has been written
+    public void flush() {
+        long[] targets = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            targets[i] = stripes[i].claimedSequence();
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            while (stripes[i].consumedSequence() < targets[i] && consumer.isAlive()) {
+                LockSupport.parkNanos(50_000L);
+            }
+        }
+    }
+
+    // Stops accepting work, drains what is left and closes the sink; safe to call more than once
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM is already shutting down, the hook will run on its own
+            }
+        }
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    // Sink calls (write, endOfBatch, close) that threw; a failed write loses its event
+    public long sinkFailureCount() {
+        return sinkFailures.sum();
+    }
+
+    // The most recent exception thrown by the sink, or null
+    public RuntimeException lastSinkFailure() {
+        return lastSinkFailure;
+    }
+
+    public AsyncLogSettings getSettings() {
+        return settings;
+    }
+}
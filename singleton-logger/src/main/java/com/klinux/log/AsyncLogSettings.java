@@ -0,0 +1,36 @@
+package com.klinux.log;
+
+// Tuning for the async pipeline. bufferSize is the total across all stripes, each stripe is
+// rounded up to a power of two; stripes == 0 means one per available processor.
+public record AsyncLogSettings(int bufferSize, int batchSize, WaitStrategy waitStrategy,
+        BackpressurePolicy backpressure, int sampleRate, int stripes) {
+
+    public AsyncLogSettings {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize must be at least 2: " + bufferSize);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate must be positive: " + sampleRate);
+        }
+        if (stripes < 0) {
+            throw new IllegalArgumentException("stripes must not be negative: " + stripes);
+        }
+        if (waitStrategy == null || backpressure == null) {
+            throw new IllegalArgumentException("waitStrategy and backpressure are required");
+        }
+    }
+
+    public static AsyncLogSettings defaults() {
+        return new AsyncLogSettings(8192, 256, WaitStrategy.PARK, BackpressurePolicy.BLOCK, 10, 0);
+    }
+
+    // Actual stripe count, always a power of two so a thread maps to a stripe with a mask
+    public int effectiveStripes() {
+        int requested = stripes == 0 ? Runtime.getRuntime().availableProcessors() : stripes;
+        int highest = Integer.highestOneBit(requested);
+        return highest == requested ? requested : highest << 1;
+    }
+}
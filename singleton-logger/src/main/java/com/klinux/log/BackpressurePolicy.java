@@ -0,0 +1,14 @@
+package com.klinux.log;
+
+// What log() does when the consumer cannot keep up with producers
+public enum BackpressurePolicy {
+
+    // Wait for a free slot, nothing is lost
+    BLOCK,
+
+    // Discard the event when the buffer is full
+    DROP,
+
+    // Keep 1 in sample-rate events once the buffer is past its high-water mark, drop when full
+    SAMPLE
+}
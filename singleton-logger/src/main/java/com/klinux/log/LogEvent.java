@@ -0,0 +1,123 @@
+package com.klinux.log;
+
+// Reusable event slot owned by the ring buffer; producers fill it, the consumer thread reads it.
+// Up to two arguments are kept in typed slots so long/double values are stored without boxing
+// and only turned into text when the consumer formats the message.
+public final class LogEvent {
+
+    public enum ArgumentType {
+        OBJECT,
+        LONG,
+        DOUBLE
+    }
+
+    private static final String PLACEHOLDER = "{}";
+
+    private long timestamp;
+    private LogLevel level;
+    private String template;
+    private int argumentCount;
+    private final ArgumentType[] types = new ArgumentType[2];
+    private final Object[] objects = new Object[2];
+    private final long[] bits = new long[2];
+
+    void set(long timestamp, LogLevel level, String template) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.template = template;
+        this.argumentCount = 0;
+    }
+
+    void setObject(int index, Object value) {
+        types[index] = ArgumentType.OBJECT;
+        objects[index] = value;
+        argumentCount = index + 1;
+    }
+
+    void setLong(int index, long value) {
+        types[index] = ArgumentType.LONG;
+        bits[index] = value;
+        argumentCount = index + 1;
+    }
+
+    void setDouble(int index, double value) {
+        types[index] = ArgumentType.DOUBLE;
+        bits[index] = Double.doubleToRawLongBits(value);
+        argumentCount = index + 1;
+    }
+
+    // Drop references once the event is written so the slot does not keep messages alive
+    void clear() {
+        template = null;
+        objects[0] = null;
+        objects[1] = null;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    public ArgumentType getArgumentType(int index) {
+        return types[index];
+    }
+
+    public Object getObjectArgument(int index) {
+        return objects[index];
+    }
+
+    public long getLongArgument(int index) {
+        return bits[index];
+    }
+
+    public double getDoubleArgument(int index) {
+        return Double.longBitsToDouble(bits[index]);
+    }
+
+    // Appends the template with each {} replaced by the next argument; extra placeholders are kept as-is
+    public StringBuilder formatTo(StringBuilder out) {
+        if (argumentCount == 0) {
+            return out.append(template);
+        }
+        int start = 0;
+        int argument = 0;
+        int placeholder;
+        while (argument < argumentCount && (placeholder = template.indexOf(PLACEHOLDER, start)) >= 0) {
+            out.append(template, start, placeholder);
+            appendArgument(out, argument++);
+            start = placeholder + PLACEHOLDER.length();
+        }
+        return out.append(template, start, template.length());
+    }
+
+    private void appendArgument(StringBuilder out, int index) {
+        switch (types[index]) {
+            case LONG:
+                out.append(bits[index]);
+                break;
+            case DOUBLE:
+                out.append(Double.longBitsToDouble(bits[index]));
+                break;
+            case OBJECT:
+            default:
+                out.append(objects[index]);
+                break;
+        }
+    }
+
+    // Formatted message; allocates, so sinks on the hot path should prefer formatTo
+    public String getMessage() {
+        return formatTo(new StringBuilder()).toString();
+    }
+}
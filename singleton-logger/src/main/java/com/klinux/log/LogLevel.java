@@ -0,0 +1,29 @@
+package com.klinux.log;
+
+import org.slf4j.Logger;
+
+// Levels understood by LogManager, ordered from most to least verbose
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    // Most verbose level the SLF4J logger currently lets through
+    static LogLevel thresholdOf(Logger logger) {
+        if (logger.isTraceEnabled()) {
+            return TRACE;
+        }
+        if (logger.isDebugEnabled()) {
+            return DEBUG;
+        }
+        if (logger.isInfoEnabled()) {
+            return INFO;
+        }
+        if (logger.isWarnEnabled()) {
+            return WARN;
+        }
+        return ERROR;
+    }
+}
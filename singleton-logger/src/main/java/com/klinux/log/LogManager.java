@@ -1,5 +1,7 @@
 package com.klinux.log;
 
+import java.util.function.Supplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,25 +10,450 @@ public class LogManager {
     // Logger instance using SLF4J
     private static final Logger logger = LoggerFactory.getLogger(LogManager.class);
 
-    // The single instance of the class
-    private static LogManager instance;
+    // Background pipeline used when async mode is enabled, null means log on the caller thread
+    private volatile AsyncLogPipeline pipeline;
+
+    // Most verbose enabled level, cached so a disabled call costs a single comparison
+    private volatile LogLevel threshold = LogLevel.thresholdOf(logger);
 
     // Private constructor to prevent instantiation from other classes
     private LogManager() {}
 
+    // Holder idiom: the JVM initializes Holder once, on first use, under the class-init lock,
+    // so getInstance() is lazy and thread-safe without any locking on the hot path
+    private static final class Holder {
+        private static final LogManager INSTANCE = new LogManager();
+    }
+
     // Method to return the single instance, with lazy initialization
     public static LogManager getInstance() {
-        if (instance == null) {
-            instance = new LogManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     // Method to log messages to the console and file
     public void log(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    // Re-read the level from the logging configuration, e.g. after logging.level.root changed at runtime
+    public void refreshLevel() {
+        threshold = LogLevel.thresholdOf(logger);
+    }
+
+    // Templates use {} placeholders; arguments are formatted on the consumer thread in async mode.
+    // In async mode these forms allocate nothing on the caller: no argument, or one or two arguments that
+    // are each long or double (int and float widen to them). An Object argument, or a primitive passed
+    // alongside one (e.g. "user={} n={}", name, 5L), goes through the Object overloads and is boxed.
+    // The synchronous fallback hands arguments to SLF4J, which boxes primitives.
+
+    public void log(LogLevel level, String message) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, message) || current.isRunning())) {
+            // Handed off to the consumer thread, or dropped by the backpressure policy
+            return;
+        }
+        logSync(level, message);
+    }
+
+    public void log(LogLevel level, String template, Object argument) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, argument) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, argument, null, 1);
+    }
+
+    public void log(LogLevel level, String template, long argument) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, argument) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, argument, null, 1);
+    }
+
+    public void log(LogLevel level, String template, double argument) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, argument) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, argument, null, 1);
+    }
+
+    public void log(LogLevel level, String template, Object first, Object second) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, first, second) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, first, second, 2);
+    }
+
+    public void log(LogLevel level, String template, long first, long second) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, first, second) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, first, second, 2);
+    }
+
+    public void log(LogLevel level, String template, long first, double second) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, first, second) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, first, second, 2);
+    }
+
+    public void log(LogLevel level, String template, double first, long second) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, first, second) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, first, second, 2);
+    }
+
+    public void log(LogLevel level, String template, double first, double second) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        AsyncLogPipeline current = pipeline;
+        if (current != null && (current.publish(level, template, first, second) || current.isRunning())) {
+            return;
+        }
+        logSync(level, template, first, second, 2);
+    }
+
+    // The supplier only runs when the level is enabled
+    public void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(level, message.get());
+        }
+    }
+
+    public void trace(String message) {
+        log(LogLevel.TRACE, message);
+    }
+
+    public void trace(String template, Object argument) {
+        log(LogLevel.TRACE, template, argument);
+    }
+
+    public void trace(String template, long argument) {
+        log(LogLevel.TRACE, template, argument);
+    }
+
+    public void trace(String template, double argument) {
+        log(LogLevel.TRACE, template, argument);
+    }
+
+    public void trace(String template, Object first, Object second) {
+        log(LogLevel.TRACE, template, first, second);
+    }
+
+    public void trace(String template, long first, long second) {
+        log(LogLevel.TRACE, template, first, second);
+    }
+
+    public void trace(String template, long first, double second) {
+        log(LogLevel.TRACE, template, first, second);
+    }
+
+    public void trace(String template, double first, long second) {
+        log(LogLevel.TRACE, template, first, second);
+    }
+
+    public void trace(String template, double first, double second) {
+        log(LogLevel.TRACE, template, first, second);
+    }
+
+    public void trace(Supplier<String> message) {
+        log(LogLevel.TRACE, message);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void debug(String template, Object argument) {
+        log(LogLevel.DEBUG, template, argument);
+    }
+
+    public void debug(String template, long argument) {
+        log(LogLevel.DEBUG, template, argument);
+    }
+
+    public void debug(String template, double argument) {
+        log(LogLevel.DEBUG, template, argument);
+    }
+
+    public void debug(String template, Object first, Object second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    public void debug(String template, long first, long second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    public void debug(String template, long first, double second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    public void debug(String template, double first, long second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    public void debug(String template, double first, double second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    public void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public void info(String template, Object argument) {
+        log(LogLevel.INFO, template, argument);
+    }
+
+    public void info(String template, long argument) {
+        log(LogLevel.INFO, template, argument);
+    }
+
+    public void info(String template, double argument) {
+        log(LogLevel.INFO, template, argument);
+    }
+
+    public void info(String template, Object first, Object second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    public void info(String template, long first, long second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    public void info(String template, long first, double second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    public void info(String template, double first, long second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    public void info(String template, double first, double second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    public void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public void warn(String template, Object argument) {
+        log(LogLevel.WARN, template, argument);
+    }
+
+    public void warn(String template, long argument) {
+        log(LogLevel.WARN, template, argument);
+    }
+
+    public void warn(String template, double argument) {
+        log(LogLevel.WARN, template, argument);
+    }
+
+    public void warn(String template, Object first, Object second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    public void warn(String template, long first, long second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    public void warn(String template, long first, double second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    public void warn(String template, double first, long second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    public void warn(String template, double first, double second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    public void warn(Supplier<String> message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public void error(String template, Object argument) {
+        log(LogLevel.ERROR, template, argument);
+    }
+
+    public void error(String template, long argument) {
+        log(LogLevel.ERROR, template, argument);
+    }
+
+    public void error(String template, double argument) {
+        log(LogLevel.ERROR, template, argument);
+    }
+
+    public void error(String template, Object first, Object second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    public void error(String template, long first, long second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    public void error(String template, long first, double second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    public void error(String template, double first, long second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    public void error(String template, double first, double second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    public void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    // Caller-thread path used when async mode is off
+    private void logSync(LogLevel level, String message) {
         // Log to the console
-        logger.info(message);
+        switch (level) {
+            case TRACE:
+                logger.trace(message);
+                break;
+            case DEBUG:
+                logger.debug(message);
+                break;
+            case WARN:
+                logger.warn(message);
+                break;
+            case ERROR:
+                logger.error(message);
+                break;
+            case INFO:
+            default:
+                logger.info(message);
+                break;
+        }
 
         // Optionally log to a file (Spring Boot automatically handles file logging based on configuration)
     }
-}
\ No newline at end of file
+
+    // SLF4J's one- and two-argument forms, so no varargs array is allocated
+    private void logSync(LogLevel level, String template, Object first, Object second, int argumentCount) {
+        if (argumentCount == 1) {
+            switch (level) {
+                case TRACE:
+                    logger.trace(template, first);
+                    break;
+                case DEBUG:
+                    logger.debug(template, first);
+                    break;
+                case WARN:
+                    logger.warn(template, first);
+                    break;
+                case ERROR:
+                    logger.error(template, first);
+                    break;
+                case INFO:
+                default:
+                    logger.info(template, first);
+                    break;
+            }
+            return;
+        }
+        switch (level) {
+            case TRACE:
+                logger.trace(template, first, second);
+                break;
+            case DEBUG:
+                logger.debug(template, first, second);
+                break;
+            case WARN:
+                logger.warn(template, first, second);
+                break;
+            case ERROR:
+                logger.error(template, first, second);
+                break;
+            case INFO:
+            default:
+                logger.info(template, first, second);
+                break;
+        }
+    }
+
+    // Switch to asynchronous logging; any previous pipeline is drained first
+    public synchronized void enableAsync(AsyncLogSettings settings) {
+        enableAsync(settings, new Slf4jLogSink(logger));
+    }
+
+    public synchronized void enableAsync(AsyncLogSettings settings, LogSink sink) {
+        disableAsync();
+        refreshLevel();
+        pipeline = new AsyncLogPipeline(settings, sink);
+    }
+
+    // Flush pending events and go back to logging on the caller thread
+    public synchronized void disableAsync() {
+        AsyncLogPipeline current = pipeline;
+        if (current != null) {
+            pipeline = null;
+            current.shutdown();
+        }
+    }
+
+    // Blocks until every message logged so far has reached the sink
+    public void flush() {
+        AsyncLogPipeline current = pipeline;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    public boolean isAsync() {
+        return pipeline != null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.klinux.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// Pre-allocated multi-producer / single-consumer ring of reusable LogEvent slots.
+// Producers claim a sequence with a CAS, fill the slot and publish it; the consumer
+// drains published slots in order and releases them by advancing its own sequence.
+final class LogRingBuffer {
+
+    private final LogEvent[] slots;
+    private final int mask;
+    private final int capacity;
+
+    // Sequence stored per slot once it is published, -1 while never used
+    private final AtomicLongArray published;
+
+    // Highest sequence handed out to a producer
+    private final AtomicLong claimed = new PaddedAtomicLong(-1);
+
+    // Highest sequence the consumer has finished with
+    private final AtomicLong consumed = new PaddedAtomicLong(-1);
+
+    // Keeps the producer and consumer counters on separate cache lines
+    @SuppressWarnings("unused")
+    private static final class PaddedAtomicLong extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        PaddedAtomicLong(long initialValue) {
+            super(initialValue);
+        }
+    }
+
+    LogRingBuffer(int requestedSize) {
+        this.capacity = powerOfTwo(requestedSize);
+        this.mask = capacity - 1;
+        this.slots = new LogEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            published.set(i, -1);
+        }
+    }
+
+    private static int powerOfTwo(int size) {
+        int highest = Integer.highestOneBit(size);
+        return highest == size ? size : highest << 1;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Returns the claimed sequence, or -1 if the buffer is full
+    long tryClaim() {
+        long current;
+        long next;
+        do {
+            current = claimed.get();
+            next = current + 1;
+            if (next - capacity > consumed.get()) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(current, next));
+        return next;
+    }
+
+    LogEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    // Hands up to maxBatch published events to the sink and returns how many were taken off the ring.
+    // An event the sink throws on is passed to onFailure and released like the others.
+    int drain(LogSink sink, int maxBatch, Consumer<RuntimeException> onFailure) {
+        long next = consumed.get() + 1;
+        int count = 0;
+        while (count < maxBatch && published.get((int) next & mask) == next) {
+            LogEvent event = slots[(int) next & mask];
+            try {
+                sink.write(event);
+            } catch (RuntimeException e) {
+                // A failing sink must not kill the consumer thread
+                onFailure.accept(e);
+            }
+            event.clear();
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(next - 1);
+        }
+        return count;
+    }
+
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    long consumedSequence() {
+        return consumed.get();
+    }
+
+    // Number of claimed slots not yet released by the consumer
+    int size() {
+        return (int) (claimed.get() - consumed.get());
+    }
+
+    boolean isEmpty() {
+        return claimed.get() == consumed.get();
+    }
+}
@@ -0,0 +1,14 @@
+package com.klinux.log;
+
+// Destination for events drained by the async pipeline, always called from the single consumer thread
+public interface LogSink {
+
+    void write(LogEvent event);
+
+    // Called after each drained batch so sinks can flush buffered output once per batch
+    default void endOfBatch() {
+    }
+
+    default void close() {
+    }
+}
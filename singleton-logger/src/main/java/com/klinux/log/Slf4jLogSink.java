@@ -0,0 +1,44 @@
+package com.klinux.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Sink that hands events to SLF4J, so console and rolling-file output stay as configured in application.properties.
+// Messages are formatted here, on the consumer thread, into a reused buffer.
+public class Slf4jLogSink implements LogSink {
+
+    private final Logger logger;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    public Slf4jLogSink() {
+        this(LoggerFactory.getLogger(LogManager.class));
+    }
+
+    public Slf4jLogSink(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void write(LogEvent event) {
+        buffer.setLength(0);
+        String message = event.formatTo(buffer).toString();
+        switch (event.getLevel()) {
+            case TRACE:
+                logger.trace(message);
+                break;
+            case DEBUG:
+                logger.debug(message);
+                break;
+            case WARN:
+                logger.warn(message);
+                break;
+            case ERROR:
+                logger.error(message);
+                break;
+            case INFO:
+            default:
+                logger.info(message);
+                break;
+        }
+    }
+}
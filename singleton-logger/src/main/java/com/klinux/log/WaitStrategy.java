@@ -0,0 +1,47 @@
+package com.klinux.log;
+
+import java.util.concurrent.locks.LockSupport;
+
+// How a thread waits when it cannot make progress (idle consumer or producer blocked on a full buffer)
+public enum WaitStrategy {
+
+    // Lowest latency, burns a core while idle
+    BUSY_SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    // Spins briefly, then gives the core back to other threads
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    // Spins, yields, then parks; the best choice when logging is bursty
+    PARK {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_TRIES * 2) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 100_000L;
+
+    // attempt is the number of consecutive idle rounds, reset by the caller once work is found
+    public abstract void idle(int attempt);
+}
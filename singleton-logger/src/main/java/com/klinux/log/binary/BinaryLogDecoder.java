@@ -0,0 +1,169 @@
+package com.klinux.log.binary;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.klinux.log.LogLevel;
+
+// Offline reader for segments written by BinaryLogSink. Renders each event with the same layout as
+// logging.pattern.console (%d{yyyy-MM-dd HH:mm:ss} - %msg%n).
+//
+// Usage: java -cp singleton-logger.jar com.klinux.log.binary.BinaryLogDecoder <segment file or directory>...
+public final class BinaryLogDecoder {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    // One decoded event, with the message already formatted
+    public record DecodedEvent(long timestamp, LogLevel level, String message) {
+
+        public String toText() {
+            return TIMESTAMP.format(Instant.ofEpochMilli(timestamp)) + " - " + message;
+        }
+    }
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryLogDecoder <segment file or directory>...");
+            System.exit(1);
+        }
+        PrintStream out = System.out;
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            List<Path> segments = Files.isDirectory(path) ? MappedSegmentWriter.listSegments(path) : List.of(path);
+            for (Path segment : segments) {
+                decode(segment, event -> out.println(event.toText()));
+            }
+        }
+    }
+
+    public static List<DecodedEvent> decodeDirectory(Path directory) throws IOException {
+        List<DecodedEvent> events = new ArrayList<>();
+        for (Path segment : MappedSegmentWriter.listSegments(directory)) {
+            decode(segment, events::add);
+        }
+        return events;
+    }
+
+    public static void decode(Path segment, Consumer<DecodedEvent> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < BinaryLogFormat.HEADER_SIZE || buffer.getInt() != BinaryLogFormat.MAGIC) {
+            throw new IOException("Not a binary log segment: " + segment);
+        }
+        byte version = buffer.get();
+        if (version != BinaryLogFormat.VERSION) {
+            throw new IOException("Unsupported segment version " + version + ": " + segment);
+        }
+        long timestamp = buffer.getLong();
+        List<String> templates = new ArrayList<>();
+        templates.add(null); // ids start at 1
+        StringBuilder message = new StringBuilder();
+
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == BinaryLogFormat.END) {
+                return;
+            }
+            try {
+                if (type == BinaryLogFormat.TEMPLATE) {
+                    int id = (int) BinaryLogFormat.getVarLong(buffer);
+                    String template = getString(buffer);
+                    while (templates.size() <= id) {
+                        templates.add(null);
+                    }
+                    templates.set(id, template);
+                } else if (type == BinaryLogFormat.EVENT) {
+                    timestamp += BinaryLogFormat.unZigZag(BinaryLogFormat.getVarLong(buffer));
+                    LogLevel level = LEVELS[buffer.get()];
+                    int id = (int) BinaryLogFormat.getVarLong(buffer);
+                    String template = id == 0 ? getString(buffer) : templates.get(id);
+                    int argumentCount = buffer.get();
+                    message.setLength(0);
+                    format(template, buffer, argumentCount, message);
+                    consumer.accept(new DecodedEvent(timestamp, level, message.toString()));
+                } else {
+                    throw new IOException("Unknown record type " + type + " in " + segment);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt record in " + segment + " at offset " + buffer.position(), e);
+            }
+        }
+    }
+
+    // Same substitution rules as LogEvent.formatTo
+    private static void format(String template, ByteBuffer buffer, int argumentCount, StringBuilder out) {
+        int start = 0;
+        for (int i = 0; i < argumentCount; i++) {
+            int placeholder = template.indexOf("{}", start);
+            if (placeholder < 0) {
+                readArgument(buffer, null);
+                continue;
+            }
+            out.append(template, start, placeholder);
+            readArgument(buffer, out);
+            start = placeholder + 2;
+        }
+        out.append(template, start, template.length());
+    }
+
+    // Appends the next argument to out, or just skips it when out is null
+    private static void readArgument(ByteBuffer buffer, StringBuilder out) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case BinaryLogFormat.ARG_NULL:
+                append(out, "null");
+                break;
+            case BinaryLogFormat.ARG_LONG:
+                long value = BinaryLogFormat.unZigZag(BinaryLogFormat.getVarLong(buffer));
+                if (out != null) {
+                    out.append(value);
+                }
+                break;
+            case BinaryLogFormat.ARG_DOUBLE:
+                double number = buffer.getDouble();
+                if (out != null) {
+                    out.append(number);
+                }
+                break;
+            case BinaryLogFormat.ARG_STRING:
+                append(out, getString(buffer));
+                break;
+            default:
+                throw new IllegalStateException("Unknown argument tag " + tag);
+        }
+    }
+
+    private static void append(StringBuilder out, String value) {
+        if (out != null) {
+            out.append(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = (int) BinaryLogFormat.getVarLong(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
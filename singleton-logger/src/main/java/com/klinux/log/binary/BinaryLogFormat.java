@@ -0,0 +1,66 @@
+package com.klinux.log.binary;
+
+import java.nio.ByteBuffer;
+
+// On-disk layout shared by BinaryLogSink and BinaryLogDecoder.
+//
+// Segment: MAGIC (int), VERSION (byte), base timestamp (long), then records until an END byte
+// (segments are pre-sized and zero filled, so the unused tail reads as END).
+// TEMPLATE record: id (varint), length (varint), UTF-8 bytes. Ids are local to a segment.
+// EVENT record: timestamp delta from the previous event (zigzag varint), level ordinal (byte),
+// template id (varint), argument count (byte), then per argument a tag byte and its value.
+final class BinaryLogFormat {
+
+    static final int MAGIC = 0x424C4F47; // "BLOG"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + 1 + Long.BYTES;
+
+    static final byte END = 0;
+    static final byte TEMPLATE = 1;
+    static final byte EVENT = 2;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_LONG = 1;
+    static final byte ARG_DOUBLE = 2;
+    static final byte ARG_STRING = 3;
+
+    static final String FILE_PREFIX = "application-";
+    static final String FILE_SUFFIX = ".blog";
+
+    private BinaryLogFormat() {
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Zero-padded to the width of Long.MAX_VALUE so names also sort in write order in a file listing;
+    // readers still order segments by the parsed index (see MappedSegmentWriter.listSegments)
+    static String fileName(long index) {
+        return String.format("%s%019d%s", FILE_PREFIX, index, FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,182 @@
+package com.klinux.log.binary;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.klinux.log.LogEvent;
+import com.klinux.log.LogSink;
+
+// Writes events as compact binary records into memory-mapped segments (see BinaryLogFormat).
+// Templates are written once per segment and then referenced by id; long/double arguments are
+// stored as they are, so nothing is formatted on the write path. Use BinaryLogDecoder to read.
+// A record bigger than a whole segment is replaced by a truncated copy of its template, without arguments.
+public class BinaryLogSink implements LogSink {
+
+    // Templates per segment; beyond this, messages are still written but not interned
+    private static final int MAX_TEMPLATES = 4096;
+
+    // Event tag, timestamp delta, level, template id 0, string length and argument count, at their widest
+    private static final int TRUNCATED_OVERHEAD = 1 + 10 + 1 + 1 + 5 + 1;
+    private static final String TRUNCATED_PREFIX = "[truncated] ";
+
+    private final MappedSegmentWriter writer;
+    private final int maxRecordSize;
+    private final Map<String, Integer> templateIds = new HashMap<>();
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer record = ByteBuffer.allocate(1024);
+    private long lastTimestamp;
+    private volatile long truncatedRecords;
+
+    public BinaryLogSink(Path directory, int segmentSize, int maxSegments) {
+        this.writer = new MappedSegmentWriter(directory, segmentSize, maxSegments);
+        this.maxRecordSize = writer.maxRecordSize();
+        if (maxRecordSize <= TRUNCATED_OVERHEAD + TRUNCATED_PREFIX.length()) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+    }
+
+    @Override
+    public void write(LogEvent event) {
+        encodeFitting(event);
+        if (!writer.fits(record.remaining())) {
+            // Template ids and timestamp deltas restart in every segment so each one decodes on its own
+            writer.roll(event.getTimestamp());
+            templateIds.clear();
+            lastTimestamp = event.getTimestamp();
+            encodeFitting(event);
+        }
+        writer.write(record);
+        lastTimestamp = event.getTimestamp();
+    }
+
+    // Records replaced by a truncated copy because they would not fit in an empty segment
+    public long truncatedRecords() {
+        return truncatedRecords;
+    }
+
+    // Encodes the event, or its truncated copy when the record could never fit in a segment. The size is
+    // checked before the writer rolls, so an oversized event neither leaves an empty segment behind nor
+    // registers a template id that no record in the segment defines.
+    private void encodeFitting(LogEvent event) {
+        int templatesBefore = templateIds.size();
+        encode(event);
+        if (record.remaining() <= maxRecordSize) {
+            return;
+        }
+        if (templateIds.size() > templatesBefore) {
+            templateIds.remove(event.getTemplate());
+        }
+        encodeTruncated(event);
+        truncatedRecords++;
+    }
+
+    private void encodeTruncated(LogEvent event) {
+        record.clear();
+        record.put(BinaryLogFormat.EVENT);
+        BinaryLogFormat.putVarLong(record, BinaryLogFormat.zigZag(event.getTimestamp() - lastTimestamp));
+        record.put((byte) event.getLevel().ordinal());
+        // Inline template (id 0) cut at a character boundary
+        BinaryLogFormat.putVarLong(record, 0);
+        ByteBuffer text = ByteBuffer.allocate(maxRecordSize - TRUNCATED_OVERHEAD);
+        utf8.reset();
+        utf8.encode(CharBuffer.wrap(TRUNCATED_PREFIX + event.getTemplate()), text, true);
+        text.flip();
+        BinaryLogFormat.putVarLong(record, text.remaining());
+        record.put(text);
+        record.put((byte) 0);
+        record.flip();
+    }
+
+    private void encode(LogEvent event) {
+        while (true) {
+            record.clear();
+            int templatesBefore = templateIds.size();
+            try {
+                encodeInto(event);
+                record.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                // Undo ids handed out during the failed attempt, then retry with a bigger buffer
+                if (templateIds.size() > templatesBefore) {
+                    templateIds.remove(event.getTemplate());
+                }
+                record = ByteBuffer.allocate(record.capacity() * 2);
+            }
+        }
+    }
+
+    private void encodeInto(LogEvent event) {
+        String template = event.getTemplate();
+        Integer id = templateIds.get(template);
+        if (id == null && templateIds.size() < MAX_TEMPLATES) {
+            id = templateIds.size() + 1;
+            templateIds.put(template, id);
+            record.put(BinaryLogFormat.TEMPLATE);
+            BinaryLogFormat.putVarLong(record, id);
+            putString(template);
+        }
+
+        record.put(BinaryLogFormat.EVENT);
+        BinaryLogFormat.putVarLong(record, BinaryLogFormat.zigZag(event.getTimestamp() - lastTimestamp));
+        record.put((byte) event.getLevel().ordinal());
+
+        int argumentCount = event.getArgumentCount();
+        if (id == null) {
+            // Dictionary is full: id 0 means the template follows inline
+            BinaryLogFormat.putVarLong(record, 0);
+            putString(template);
+        } else {
+            BinaryLogFormat.putVarLong(record, id);
+        }
+        record.put((byte) argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+            putArgument(event, i);
+        }
+    }
+
+    private void putArgument(LogEvent event, int index) {
+        switch (event.getArgumentType(index)) {
+            case LONG:
+                record.put(BinaryLogFormat.ARG_LONG);
+                BinaryLogFormat.putVarLong(record, BinaryLogFormat.zigZag(event.getLongArgument(index)));
+                break;
+            case DOUBLE:
+                record.put(BinaryLogFormat.ARG_DOUBLE);
+                record.putDouble(event.getDoubleArgument(index));
+                break;
+            case OBJECT:
+            default:
+                Object value = event.getObjectArgument(index);
+                if (value == null) {
+                    record.put(BinaryLogFormat.ARG_NULL);
+                } else if (value instanceof Long || value instanceof Integer) {
+                    record.put(BinaryLogFormat.ARG_LONG);
+                    BinaryLogFormat.putVarLong(record, BinaryLogFormat.zigZag(((Number) value).longValue()));
+                } else if (value instanceof Double) {
+                    record.put(BinaryLogFormat.ARG_DOUBLE);
+                    record.putDouble((Double) value);
+                } else {
+                    record.put(BinaryLogFormat.ARG_STRING);
+                    putString(value.toString());
+                }
+                break;
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        BinaryLogFormat.putVarLong(record, bytes.length);
+        record.put(bytes);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
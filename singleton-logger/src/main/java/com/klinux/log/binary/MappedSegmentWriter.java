@@ -0,0 +1,141 @@
+package com.klinux.log.binary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Appends records to fixed-size memory-mapped segment files and rolls to a new one when full,
+// keeping at most maxSegments files (the binary counterpart of logging.file.max-size/max-history).
+// Not thread-safe: only the async pipeline's consumer thread writes.
+class MappedSegmentWriter implements AutoCloseable {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+
+    MappedSegmentWriter(Path directory, int segmentSize, int maxSegments) {
+        if (segmentSize <= BinaryLogFormat.HEADER_SIZE + 1) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+            this.segmentIndex = lastSegmentIndex(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Room left in the current segment for records, keeping one byte for the END marker
+    boolean fits(int length) {
+        return segment != null && segment.remaining() > length;
+    }
+
+    // Largest record an empty segment can take
+    int maxRecordSize() {
+        return segmentSize - BinaryLogFormat.HEADER_SIZE - 1;
+    }
+
+    void write(ByteBuffer record) {
+        if (record.remaining() > maxRecordSize()) {
+            throw new IllegalArgumentException("Record of " + record.remaining() + " bytes exceeds segment size");
+        }
+        segment.put(record);
+    }
+
+    // Seals the current segment and maps a fresh one; timestamps in the new segment are relative to baseTimestamp
+    void roll(long baseTimestamp) {
+        seal();
+        segmentIndex++;
+        Path file = directory.resolve(BinaryLogFormat.fileName(segmentIndex));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.putInt(BinaryLogFormat.MAGIC);
+        segment.put(BinaryLogFormat.VERSION);
+        segment.putLong(baseTimestamp);
+        deleteOldSegments();
+    }
+
+    private void seal() {
+        if (segment != null) {
+            if (segment.hasRemaining()) {
+                segment.put(BinaryLogFormat.END);
+            }
+            segment.force();
+            segment = null;
+        }
+    }
+
+    private void deleteOldSegments() {
+        try {
+            List<Path> segments = listSegments(directory);
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        seal();
+    }
+
+    // Segment files in write order, by their numeric index: names written with a narrower padding by
+    // earlier versions do not sort by name once the index outgrows it
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> segmentIndex(file) >= 0)
+                    .sorted(Comparator.comparingLong(MappedSegmentWriter::segmentIndex))
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    // The index in a segment file name, or -1 when the file is not a segment
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(BinaryLogFormat.FILE_PREFIX) || !name.endsWith(BinaryLogFormat.FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(BinaryLogFormat.FILE_PREFIX.length(),
+                    name.length() - BinaryLogFormat.FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            // Not one of ours
+            return -1;
+        }
+    }
+
+    // Continue numbering after existing segments so a restart never overwrites old logs
+    private static long lastSegmentIndex(Path directory) throws IOException {
+        List<Path> segments = listSegments(directory);
+        return segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1));
+    }
+}
@@ -0,0 +1,144 @@
+package com.klinux.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncLogPipelineTest {
+
+    // Collects messages; only ever touched by the consumer thread until the pipeline is flushed
+    static class CollectingSink implements LogSink {
+        final List<String> messages = new ArrayList<>();
+        final List<List<LogEvent.ArgumentType>> argumentTypes = new ArrayList<>();
+        int batches;
+
+        @Override
+        public void write(LogEvent event) {
+            messages.add(event.getMessage());
+            List<LogEvent.ArgumentType> types = new ArrayList<>();
+            for (int i = 0; i < event.getArgumentCount(); i++) {
+                types.add(event.getArgumentType(i));
+            }
+            argumentTypes.add(types);
+        }
+
+        @Override
+        public void endOfBatch() {
+            batches++;
+        }
+    }
+
+    @Test
+    void deliversEveryMessageFromConcurrentProducers() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(
+                new AsyncLogSettings(64, 16, WaitStrategy.YIELD, BackpressurePolicy.BLOCK, 1, 4), sink);
+
+        int threads = 4;
+        int perThread = 5_000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String prefix = "t" + t + "-";
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    pipeline.publish(prefix + i);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        pipeline.shutdown();
+
+        assertEquals(threads * perThread, sink.messages.size());
+        assertEquals(0, pipeline.droppedCount());
+        // Per-producer order is preserved
+        int last = -1;
+        for (String message : sink.messages) {
+            if (message.startsWith("t0-")) {
+                int index = Integer.parseInt(message.substring(3));
+                assertTrue(index > last);
+                last = index;
+            }
+        }
+    }
+
+    @Test
+    void dropPolicyDiscardsWhenConsumerIsStalled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingSink sink = new CollectingSink() {
+            @Override
+            public void write(LogEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(event);
+            }
+        };
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(
+                new AsyncLogSettings(8, 8, WaitStrategy.PARK, BackpressurePolicy.DROP, 1, 1), sink);
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (pipeline.publish("m" + i)) {
+                accepted++;
+            }
+        }
+        release.countDown();
+        pipeline.shutdown();
+
+        assertTrue(pipeline.droppedCount() > 0);
+        assertEquals(100, accepted + pipeline.droppedCount());
+        assertEquals(accepted, sink.messages.size());
+    }
+
+    @Test
+    void sinkFailuresAreCountedAndTheConsumerCarriesOn() {
+        CollectingSink sink = new CollectingSink() {
+            @Override
+            public void write(LogEvent event) {
+                if (event.getMessage().startsWith("bad")) {
+                    throw new IllegalStateException("disk full");
+                }
+                super.write(event);
+            }
+        };
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(
+                new AsyncLogSettings(8, 8, WaitStrategy.YIELD, BackpressurePolicy.BLOCK, 1, 1), sink);
+
+        pipeline.publish("a");
+        pipeline.publish("bad 1");
+        pipeline.publish("b");
+        pipeline.publish("bad 2");
+        pipeline.shutdown();
+
+        assertEquals(List.of("a", "b"), sink.messages);
+        assertEquals(2, pipeline.sinkFailureCount());
+        assertEquals("disk full", pipeline.lastSinkFailure().getMessage());
+    }
+
+    @Test
+    void shutdownFlushesPendingEventsAndRejectsNewOnes() {
+        CollectingSink sink = new CollectingSink();
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(AsyncLogSettings.defaults(), sink);
+        for (int i = 0; i < 1_000; i++) {
+            pipeline.publish("m" + i);
+        }
+        pipeline.shutdown();
+
+        assertEquals(1_000, sink.messages.size());
+        assertTrue(sink.batches > 0);
+        assertFalse(pipeline.isRunning());
+        assertFalse(pipeline.publish("late"));
+    }
+}
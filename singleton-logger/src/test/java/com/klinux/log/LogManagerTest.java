@@ -0,0 +1,71 @@
+package com.klinux.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.klinux.log.AsyncLogPipelineTest.CollectingSink;
+
+class LogManagerTest {
+
+    @Test
+    void concurrentCallersGetTheSameInstance() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<LogManager>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<LogManager> task = () -> {
+                    start.await();
+                    return LogManager.getInstance();
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            LogManager expected = LogManager.getInstance();
+            for (Future<LogManager> result : results) {
+                assertSame(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void formatsArgumentsOnTheConsumerAndSkipsDisabledLevels() {
+        LogManager logManager = LogManager.getInstance();
+        CollectingSink sink = new CollectingSink();
+        logManager.enableAsync(AsyncLogSettings.defaults(), sink);
+        try {
+            logManager.info("plain {} kept");
+            logManager.info("count={} avg={}", 42L, 1.5);
+            logManager.warn("ratio={}", 0.25);
+            logManager.error("user={}", "alice");
+            logManager.info("int={}", 7);
+            logManager.log(LogLevel.ERROR, () -> "supplied");
+            if (!logManager.isEnabled(LogLevel.TRACE)) {
+                logManager.trace(() -> fail("supplier must not run for a disabled level"));
+            }
+            logManager.flush();
+        } finally {
+            logManager.disableAsync();
+        }
+
+        assertEquals(List.of("plain {} kept", "count=42 avg=1.5", "ratio=0.25", "user=alice", "int=7", "supplied"),
+                sink.messages);
+        // Primitive pairs reach the event unboxed
+        assertEquals(List.of(LogEvent.ArgumentType.LONG, LogEvent.ArgumentType.DOUBLE), sink.argumentTypes.get(1));
+        assertEquals(List.of(LogEvent.ArgumentType.LONG), sink.argumentTypes.get(4));
+    }
+}
@@ -0,0 +1,109 @@
+package com.klinux.log.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.klinux.log.AsyncLogPipeline;
+import com.klinux.log.AsyncLogSettings;
+import com.klinux.log.BackpressurePolicy;
+import com.klinux.log.LogLevel;
+import com.klinux.log.WaitStrategy;
+import com.klinux.log.binary.BinaryLogDecoder.DecodedEvent;
+
+class BinaryLogSinkTest {
+
+    private static final AsyncLogSettings SINGLE_STRIPE =
+            new AsyncLogSettings(1024, 64, WaitStrategy.PARK, BackpressurePolicy.BLOCK, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void decodesWhatWasWritten() throws Exception {
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(SINGLE_STRIPE, new BinaryLogSink(directory, 64 * 1024, 30));
+        pipeline.publish(LogLevel.INFO, "Application Started");
+        pipeline.publish(LogLevel.WARN, "count={}", -42L);
+        pipeline.publish(LogLevel.ERROR, "ratio={}", 0.75);
+        pipeline.publish(LogLevel.INFO, "user={} id={}", "alice", null);
+        pipeline.publish(LogLevel.INFO, "count={}", 7L);
+        pipeline.shutdown();
+
+        List<DecodedEvent> events = BinaryLogDecoder.decodeDirectory(directory);
+        assertEquals(List.of("Application Started", "count=-42", "ratio=0.75", "user=alice id=null", "count=7"),
+                events.stream().map(DecodedEvent::message).toList());
+        assertEquals(LogLevel.WARN, events.get(1).level());
+        assertTrue(events.get(0).toText().endsWith(" - Application Started"));
+    }
+
+    @Test
+    void rollsSegmentsAndKeepsOnlyTheNewest() throws Exception {
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(SINGLE_STRIPE, new BinaryLogSink(directory, 512, 3));
+        for (int i = 0; i < 500; i++) {
+            pipeline.publish(LogLevel.INFO, "Performing operation {}", i);
+        }
+        pipeline.shutdown();
+
+        assertEquals(3, MappedSegmentWriter.listSegments(directory).size());
+        List<DecodedEvent> events = BinaryLogDecoder.decodeDirectory(directory);
+        assertEquals("Performing operation 499", events.get(events.size() - 1).message());
+        // Every segment decodes on its own, so what is left is a contiguous tail
+        int first = Integer.parseInt(events.get(0).message().substring("Performing operation ".length()));
+        assertEquals(500 - first, events.size());
+    }
+
+    @Test
+    void ordersSegmentsByIndexNotByName() throws Exception {
+        // Six-digit names from earlier versions next to the current width
+        Path older = Files.createFile(directory.resolve("application-999999.blog"));
+        Path newer = Files.createFile(directory.resolve("application-1000000.blog"));
+        Path newest = Files.createFile(directory.resolve(BinaryLogFormat.fileName(1_000_001)));
+        Files.createFile(directory.resolve("application-notes.blog"));
+
+        assertEquals(List.of(older, newer, newest), MappedSegmentWriter.listSegments(directory));
+
+        try (MappedSegmentWriter writer = new MappedSegmentWriter(directory, 512, 30)) {
+            writer.roll(0);
+        }
+        assertTrue(Files.exists(directory.resolve(BinaryLogFormat.fileName(1_000_002))));
+        assertEquals("application-0000000000001000002.blog", BinaryLogFormat.fileName(1_000_002));
+    }
+
+    @Test
+    void truncatesRecordsBiggerThanASegment() throws Exception {
+        BinaryLogSink sink = new BinaryLogSink(directory, 256, 3);
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(SINGLE_STRIPE, sink);
+        pipeline.publish(LogLevel.INFO, "Application Started");
+        pipeline.publish(LogLevel.WARN, "payload={}", "x".repeat(1000));
+        pipeline.publish(LogLevel.INFO, "payload={}", "small");
+        pipeline.shutdown();
+
+        // No roll for the oversized record, and its template id was not left dangling
+        assertEquals(1, MappedSegmentWriter.listSegments(directory).size());
+        assertEquals(1, sink.truncatedRecords());
+        List<DecodedEvent> events = BinaryLogDecoder.decodeDirectory(directory);
+        assertEquals(List.of("Application Started", "[truncated] payload={}", "payload=small"),
+                events.stream().map(DecodedEvent::message).toList());
+        assertEquals(LogLevel.WARN, events.get(1).level());
+    }
+
+    @Test
+    void truncatedTemplatesAreCutToTheSegment() throws Exception {
+        BinaryLogSink sink = new BinaryLogSink(directory, 256, 3);
+        AsyncLogPipeline pipeline = new AsyncLogPipeline(SINGLE_STRIPE, sink);
+        pipeline.publish(LogLevel.INFO, "é".repeat(500));
+        pipeline.shutdown();
+
+        List<DecodedEvent> events = BinaryLogDecoder.decodeDirectory(directory);
+        assertEquals(1, events.size());
+        String message = events.get(0).message();
+        assertTrue(message.startsWith("[truncated] éé"));
+        assertTrue(message.chars().allMatch(c -> c != '\uFFFD'));
+    }
+}